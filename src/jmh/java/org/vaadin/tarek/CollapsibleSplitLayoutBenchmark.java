@@ -0,0 +1,120 @@
+package org.vaadin.tarek;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vaadin.tarek.CollapsibleSplitLayout.Orientation;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+
+/**
+ * Benchmarks of the server-side API of {@link CollapsibleSplitLayout}, run
+ * with {@code mvn verify -Pbenchmark}. The operations on an attached layout
+ * include collecting the resulting state tree changes, as is done when a
+ * response is written.
+ * <p>
+ * The time per operation and, with the {@code gc} profiler enabled in the
+ * {@code benchmark} profile, the allocations per operation
+ * ({@code gc.alloc.rate.norm}) are written to
+ * {@code target/jmh-result.json}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollapsibleSplitLayoutBenchmark {
+
+    private UI ui;
+    private CollapsibleSplitLayout layout;
+    private Div primary;
+    private Div otherPrimary;
+    private Div secondary;
+    private Div otherSecondary;
+    private boolean flag;
+
+    @Benchmark
+    public void addToPrimaryAndSecondary() {
+        flag = !flag;
+        layout.addToPrimary(flag ? otherPrimary : primary);
+        layout.addToSecondary(flag ? otherSecondary : secondary);
+        collectChanges();
+    }
+
+    private void collectChanges() {
+        ui.getInternals().getStateTree().collectChanges(change -> {
+        });
+    }
+
+    @Benchmark
+    public CollapsibleSplitLayout construct() {
+        return new CollapsibleSplitLayout(new Div(), new Div());
+    }
+
+    @Benchmark
+    public void constructAndAttach(Blackhole blackhole) {
+        CollapsibleSplitLayout attached = new CollapsibleSplitLayout(
+                new Div(), new Div());
+        ui.add(attached);
+        collectChanges();
+        ui.remove(attached);
+        collectChanges();
+        blackhole.consume(attached);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ui = new MockUI();
+        UI.setCurrent(ui);
+
+        primary = new Div();
+        otherPrimary = new Div();
+        secondary = new Div();
+        otherSecondary = new Div();
+        layout = new CollapsibleSplitLayout(primary, secondary);
+        ui.add(layout);
+        collectChanges();
+    }
+
+    @Benchmark
+    public void setOrientation() {
+        flag = !flag;
+        layout.setOrientation(
+                flag ? Orientation.VERTICAL : Orientation.HORIZONTAL);
+        collectChanges();
+    }
+
+    @Benchmark
+    public void setPrimaryAndSecondaryComponentCollapsible() {
+        flag = !flag;
+        layout.setPrimaryComponentCollapsible(flag);
+        layout.setSecondaryComponentCollapsible(!flag);
+        collectChanges();
+    }
+
+    @Benchmark
+    public void setSplitterPosition() {
+        flag = !flag;
+        layout.setSplitterPosition(flag ? 30 : 70);
+        collectChanges();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+}
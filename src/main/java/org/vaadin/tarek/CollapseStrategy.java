@@ -0,0 +1,38 @@
+package org.vaadin.tarek;
+
+/**
+ * Defines how a {@link CollapsibleSplitLayout} hides the component of a
+ * collapsed pane in the browser.
+ *
+ * @see CollapsibleSplitLayout#setCollapseStrategy(CollapseStrategy)
+ */
+public enum CollapseStrategy {
+    /**
+     * Remove the component from the layout with {@code display: none}. Its
+     * layout and rendering state is discarded, and rebuilt when the pane is
+     * expanded.
+     */
+    DISPLAY_NONE("display-none"),
+    /**
+     * Shrink the component to no size and skip its rendering with
+     * {@code content-visibility: hidden}, which keeps its rendering state so
+     * that expanding the pane is fast. Browsers not supporting
+     * {@code content-visibility} use {@link #DISPLAY_NONE} instead.
+     */
+    CONTENT_VISIBILITY("content-visibility");
+
+    private final String strategy;
+
+    CollapseStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Gets the strategy name used by the web component.
+     *
+     * @return strategy name
+     */
+    public String getStrategyName() {
+        return strategy;
+    }
+}
@@ -0,0 +1,526 @@
+package org.vaadin.tarek;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.vaadin.tarek.CollapsibleSplitLayout.Orientation;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.DomEvent;
+import com.vaadin.flow.component.EventData;
+import com.vaadin.flow.component.HasSize;
+import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.HasTheme;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.component.dependency.NpmPackage;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.PropertyChangeEvent;
+import com.vaadin.flow.shared.Registration;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+/**
+ * A split layout for any number of panes, with a splitter between each two of
+ * them. Compared to nesting {@link CollapsibleSplitLayout}s, all the panes are
+ * laid out by a single element.
+ * <p>
+ * The panes are addressed by their index, the first pane being the left pane
+ * in horizontal mode and the top pane in vertical mode.
+ */
+@NpmPackage(value = "lit", version = "2.6.1")
+@NpmPackage(value = "@vaadin/component-base", version = "24.0.2")
+@JsModule("./src/collapsible-vaadin-multi-split-layout.js")
+@JsModule("./src/collapsible-vaadin-multi-split-layout-styles.js")
+@Tag("collapsible-vaadin-multi-split-layout")
+public class CollapsibleMultiSplitLayout extends Component
+        implements HasSize, HasStyle, HasTheme {
+
+    /**
+     * Event fired when a pane has been collapsed or expanded, either by the
+     * user or from the server.
+     */
+    public static class CollapseStateChangedEvent
+            extends ComponentEvent<CollapsibleMultiSplitLayout> {
+        private final int paneIndex;
+        private final boolean collapsed;
+
+        public CollapseStateChangedEvent(CollapsibleMultiSplitLayout source,
+                boolean fromClient, int paneIndex, boolean collapsed) {
+            super(source, fromClient);
+            this.paneIndex = paneIndex;
+            this.collapsed = collapsed;
+        }
+
+        /**
+         * Gets the index of the pane that was collapsed or expanded.
+         *
+         * @return the index of the pane
+         */
+        public int getPaneIndex() {
+            return paneIndex;
+        }
+
+        /**
+         * Gets whether the pane is now collapsed.
+         *
+         * @return {@code true} if the pane was collapsed, {@code false} if it
+         *         was expanded
+         */
+        public boolean isCollapsed() {
+            return collapsed;
+        }
+    }
+
+    /**
+     * Event fired when the sizes of the panes have been changed, either by the
+     * user dragging a splitter or from the server.
+     */
+    public static class PaneSizesChangedEvent
+            extends ComponentEvent<CollapsibleMultiSplitLayout> {
+
+        public PaneSizesChangedEvent(CollapsibleMultiSplitLayout source,
+                boolean fromClient) {
+            super(source, fromClient);
+        }
+
+        /**
+         * Gets the relative sizes of the panes, see
+         * {@link CollapsibleMultiSplitLayout#getPaneSizes()}.
+         *
+         * @return the sizes of the panes in percentages
+         */
+        public double[] getPaneSizes() {
+            return getSource().getPaneSizes();
+        }
+    }
+
+    /**
+     * Event fired when the user has stopped dragging a splitter.
+     */
+    @DomEvent("splitter-dragend")
+    public static class SplitterDragendEvent
+            extends ComponentEvent<CollapsibleMultiSplitLayout> {
+        private final int splitterIndex;
+
+        public SplitterDragendEvent(CollapsibleMultiSplitLayout source,
+                boolean fromClient,
+                @EventData("event.detail.splitterIndex") int splitterIndex) {
+            super(source, fromClient);
+            this.splitterIndex = splitterIndex;
+        }
+
+        /**
+         * Gets the index of the dragged splitter. The splitter between the
+         * panes {@code i} and {@code i + 1} has the index {@code i}.
+         *
+         * @return the index of the splitter
+         */
+        public int getSplitterIndex() {
+            return splitterIndex;
+        }
+    }
+
+    private static final String COLLAPSIBLE_PANES_PROPERTY = "collapsiblePanes";
+    private static final String COLLAPSED_PANES_PROPERTY = "collapsedPanes";
+    private static final String PANE_SIZES_PROPERTY = "paneSizes";
+    private static final long serialVersionUID = 1L;
+
+    private boolean updatingPanes;
+
+    /**
+     * Constructs an empty CollapsibleMultiSplitLayout.
+     */
+    public CollapsibleMultiSplitLayout() {
+        setOrientation(Orientation.HORIZONTAL);
+        getElement().addPropertyChangeListener(COLLAPSED_PANES_PROPERTY,
+                "collapsed-panes-changed", this::onCollapsedPanesChanged);
+        getElement().addPropertyChangeListener(PANE_SIZES_PROPERTY,
+                "pane-sizes-changed", e -> {
+                    if (!updatingPanes) {
+                        fireEvent(new PaneSizesChangedEvent(this,
+                                e.isUserOriginated()));
+                    }
+                });
+    }
+
+    /**
+     * Constructs a CollapsibleMultiSplitLayout with the given components as
+     * its panes.
+     *
+     * @param panes
+     *            the components to add as panes, in order
+     */
+    public CollapsibleMultiSplitLayout(Component... panes) {
+        this();
+        addPanes(panes);
+    }
+
+    /**
+     * Adds a listener for {@link CollapseStateChangedEvent}, which is fired
+     * when a pane has been collapsed or expanded. The collapsed state is sent
+     * along with other changes from the client, so no additional requests are
+     * made.
+     *
+     * @param listener
+     *            the listener to add
+     * @return a registration for removing the listener
+     */
+    public Registration addCollapseStateChangedListener(
+            ComponentEventListener<CollapseStateChangedEvent> listener) {
+        return addListener(CollapseStateChangedEvent.class, listener);
+    }
+
+    /**
+     * Adds a listener for {@link PaneSizesChangedEvent}. The sizes are sent
+     * once the user stops dragging a splitter.
+     *
+     * @param listener
+     *            the listener to add
+     * @return a registration for removing the listener
+     */
+    public Registration addPaneSizesChangedListener(
+            ComponentEventListener<PaneSizesChangedEvent> listener) {
+        return addListener(PaneSizesChangedEvent.class, listener);
+    }
+
+    /**
+     * Adds the given components as the last panes of this layout.
+     *
+     * @param components
+     *            the components to add, not {@code null}
+     * @throws IllegalArgumentException
+     *             if a component already is a pane of this layout
+     */
+    public void addPanes(Component... components) {
+        for (Component component : components) {
+            Objects.requireNonNull(component, "Component cannot be null");
+            if (isPane(component)) {
+                throw new IllegalArgumentException("The given component ("
+                        + component + ") already is a pane of this layout");
+            }
+            getElement().appendChild(component.getElement());
+        }
+    }
+
+    /**
+     * Adds a listener for {@link SplitterDragendEvent}, which is fired when
+     * the user has stopped resizing a splitter with drag and drop.
+     *
+     * @param listener
+     *            the listener to add
+     * @return a registration for removing the listener
+     */
+    public Registration addSplitterDragendListener(
+            ComponentEventListener<SplitterDragendEvent> listener) {
+        return addListener(SplitterDragendEvent.class, listener);
+    }
+
+    /**
+     * Adds theme variants to the component.
+     *
+     * @param variants
+     *            theme variants to add
+     */
+    public void addThemeVariants(CollapsibleSplitLayoutVariant... variants) {
+        getThemeNames().addAll(Stream.of(variants)
+                .map(CollapsibleSplitLayoutVariant::getVariantName)
+                .collect(Collectors.toList()));
+    }
+
+    private void checkPaneIndex(int index) {
+        int count = getPaneCount();
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Pane index " + index
+                    + " is out of bounds for " + count + " panes");
+        }
+    }
+
+    private static boolean getFlag(Serializable value, int index) {
+        if (!(value instanceof JsonArray)) {
+            return false;
+        }
+        JsonArray array = (JsonArray) value;
+        return index < array.length() && array.get(index) != null
+                && array.get(index).asBoolean();
+    }
+
+    /**
+     * Get the orientation of the layout.
+     *
+     * @return the orientation of the layout
+     */
+    public Orientation getOrientation() {
+        return Orientation
+                .valueOf(getElement().getProperty("orientation").toUpperCase());
+    }
+
+    /**
+     * Gets the number of panes in this layout.
+     *
+     * @return the number of panes
+     */
+    public int getPaneCount() {
+        return getElement().getChildCount();
+    }
+
+    /**
+     * Gets the relative sizes of the panes in percentages, in the order of the
+     * panes. The sizes are updated when the user stops dragging a splitter.
+     *
+     * @return the sizes of the panes, or an empty array if the sizes are
+     *         determined from the pane components
+     * @see #setPaneSizes(double...)
+     */
+    public double[] getPaneSizes() {
+        Serializable value = getElement().getPropertyRaw(PANE_SIZES_PROPERTY);
+        if (!(value instanceof JsonArray)) {
+            return new double[0];
+        }
+        JsonArray array = (JsonArray) value;
+        double[] sizes = new double[array.length()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = array.getNumber(i);
+        }
+        return sizes;
+    }
+
+    /**
+     * Gets the panes of this layout, in order. The panes are the children of
+     * the element, so they also reflect changes made through the Element API.
+     *
+     * @return an unmodifiable list of the panes, never {@code null}
+     */
+    public List<Component> getPanes() {
+        return getElement().getChildren().map(Element::getComponent)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private boolean isPane(Component component) {
+        return getElement().equals(component.getElement().getParent());
+    }
+
+    /**
+     * Gets whether the pane at the given index is collapsed. The collapsed
+     * state is updated when the user collapses or expands the pane.
+     *
+     * @param index
+     *            the index of the pane
+     * @return {@code true} if the pane is collapsed, otherwise {@code false}
+     */
+    public boolean isPaneCollapsed(int index) {
+        checkPaneIndex(index);
+        return getFlag(getElement().getPropertyRaw(COLLAPSED_PANES_PROPERTY),
+                index);
+    }
+
+    /**
+     * See {@link #setPaneCollapsible(int, boolean)}
+     *
+     * @param index
+     *            the index of the pane
+     * @return {@code true} if the pane can be collapsed by the user, otherwise
+     *         {@code false}
+     */
+    public boolean isPaneCollapsible(int index) {
+        checkPaneIndex(index);
+        return getFlag(getElement().getPropertyRaw(COLLAPSIBLE_PANES_PROPERTY),
+                index);
+    }
+
+    private void onCollapsedPanesChanged(PropertyChangeEvent event) {
+        if (updatingPanes) {
+            return;
+        }
+        for (int i = 0; i < getPaneCount(); i++) {
+            boolean collapsed = getFlag(event.getValue(), i);
+            if (collapsed != getFlag(event.getOldValue(), i)) {
+                fireEvent(new CollapseStateChangedEvent(this,
+                        event.isUserOriginated(), i, collapsed));
+            }
+        }
+    }
+
+    /**
+     * Removes the given panes from this layout. The following panes keep their
+     * collapsible and collapsed states and their sizes.
+     *
+     * @param components
+     *            the panes to remove
+     * @throws IllegalArgumentException
+     *             if any of the components is not a pane of this layout
+     */
+    public void remove(Component... components) {
+        for (Component component : components) {
+            if (component == null || !isPane(component)) {
+                throw new IllegalArgumentException("The given component ("
+                        + component + ") is not a pane of this layout");
+            }
+            removePaneState(
+                    getElement().indexOfChild(component.getElement()));
+            getElement().removeChild(component.getElement());
+        }
+    }
+
+    /**
+     * Removes all the panes from this layout, along with their collapsible and
+     * collapsed states and their sizes.
+     */
+    public void removeAll() {
+        updatingPanes = true;
+        try {
+            getElement().removeProperty(COLLAPSIBLE_PANES_PROPERTY);
+            getElement().removeProperty(COLLAPSED_PANES_PROPERTY);
+            getElement().removeProperty(PANE_SIZES_PROPERTY);
+        } finally {
+            updatingPanes = false;
+        }
+        getElement().removeAllChildren();
+    }
+
+    private void removePaneState(int index) {
+        updatingPanes = true;
+        try {
+            Stream.of(COLLAPSIBLE_PANES_PROPERTY, COLLAPSED_PANES_PROPERTY,
+                    PANE_SIZES_PROPERTY).forEach(property -> {
+                        Serializable value = getElement()
+                                .getPropertyRaw(property);
+                        if (value instanceof JsonArray) {
+                            JsonArray array = (JsonArray) value;
+                            JsonArray remaining = Json.createArray();
+                            for (int i = 0; i < array.length(); i++) {
+                                if (i != index) {
+                                    remaining.set(remaining.length(),
+                                            array.get(i));
+                                }
+                            }
+                            getElement().setPropertyJson(property, remaining);
+                        }
+                    });
+        } finally {
+            updatingPanes = false;
+        }
+    }
+
+    /**
+     * Removes theme variants from the component.
+     *
+     * @param variants
+     *            theme variants to remove
+     */
+    public void removeThemeVariants(CollapsibleSplitLayoutVariant... variants) {
+        getThemeNames().removeAll(Stream.of(variants)
+                .map(CollapsibleSplitLayoutVariant::getVariantName)
+                .collect(Collectors.toList()));
+    }
+
+    private void setFlag(String property, int index, boolean flag) {
+        Serializable value = getElement().getPropertyRaw(property);
+        JsonArray array = Json.createArray();
+        for (int i = 0; i < getPaneCount(); i++) {
+            array.set(i, i == index ? flag : getFlag(value, i));
+        }
+        getElement().setPropertyJson(property, array);
+    }
+
+    /**
+     * Set the orientation of the layout. Default is
+     * {@link Orientation#HORIZONTAL}.
+     *
+     * @param orientation
+     *            the orientation of the layout, not {@code null}
+     */
+    public void setOrientation(Orientation orientation) {
+        Objects.requireNonNull(orientation, "Orientation cannot be null");
+        getElement().setProperty("orientation",
+                orientation.toString().toLowerCase());
+    }
+
+    /**
+     * Replaces the pane at the given index with the given component. The pane
+     * keeps its collapsible and collapsed states and its size.
+     *
+     * @param index
+     *            the index of the pane
+     * @param component
+     *            the new component of the pane, not {@code null}
+     * @throws IllegalArgumentException
+     *             if the component already is another pane of this layout
+     */
+    public void setPane(int index, Component component) {
+        checkPaneIndex(index);
+        Objects.requireNonNull(component, "Component cannot be null");
+        if (getElement().getChild(index).equals(component.getElement())) {
+            return;
+        }
+        if (isPane(component)) {
+            throw new IllegalArgumentException("The given component ("
+                    + component + ") already is a pane of this layout");
+        }
+        getElement().setChild(index, component.getElement());
+    }
+
+    /**
+     * Collapses or expands the pane at the given index. The pane does not need
+     * to be collapsible by the user.
+     *
+     * @param index
+     *            the index of the pane
+     * @param collapsed
+     *            {@code true} to collapse the pane, {@code false} to expand it
+     */
+    public void setPaneCollapsed(int index, boolean collapsed) {
+        checkPaneIndex(index);
+        setFlag(COLLAPSED_PANES_PROPERTY, index, collapsed);
+    }
+
+    /**
+     * Sets whether the user can collapse the pane at the given index, with the
+     * toggles of the adjacent splitters or by dragging a splitter to the edge
+     * of the pane. Default is {@code false}.
+     *
+     * @param index
+     *            the index of the pane
+     * @param collapsible
+     *            {@code true} if the pane can be collapsed by the user
+     */
+    public void setPaneCollapsible(int index, boolean collapsible) {
+        checkPaneIndex(index);
+        setFlag(COLLAPSIBLE_PANES_PROPERTY, index, collapsible);
+    }
+
+    /**
+     * Sets the relative sizes of the panes, in the order of the panes. The
+     * sizes are scaled so that they add up to 100 percent, and panes without
+     * a size get an equal share.
+     * <p>
+     * Calling this method without sizes lets the sizes be determined from the
+     * pane components.
+     *
+     * @param sizes
+     *            the relative sizes of the panes, not negative
+     */
+    public void setPaneSizes(double... sizes) {
+        if (sizes.length == 0) {
+            getElement().removeProperty(PANE_SIZES_PROPERTY);
+            return;
+        }
+        JsonArray array = Json.createArray();
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] < 0) {
+                throw new IllegalArgumentException(
+                        "Pane size cannot be negative");
+            }
+            array.set(i, sizes[i]);
+        }
+        getElement().setPropertyJson(PANE_SIZES_PROPERTY, array);
+    }
+}
@@ -1,16 +1,36 @@
 package org.vaadin.tarek;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
 import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.HasSize;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.Unit;
 import com.vaadin.flow.component.html.Div;
-import com.vaadin.flow.dom.ElementConstants;
-import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.PropertyChangeEvent;
+import com.vaadin.flow.dom.PropertyChangeListener;
+import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.shared.Registration;
 
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
 public class CollapsibleSplitLayout
         extends GeneratedCollapsibleVaadinSplitLayout<CollapsibleSplitLayout>
         implements HasSize {
@@ -22,21 +42,215 @@ public class CollapsibleSplitLayout
         HORIZONTAL, VERTICAL;
     }
 
+    /**
+     * The two panes of the layout.
+     */
+    public enum Pane {
+        /**
+         * The left pane in horizontal mode, the top pane in vertical mode.
+         */
+        PRIMARY,
+        /**
+         * The right pane in horizontal mode, the bottom pane in vertical mode.
+         */
+        SECONDARY;
+    }
+
+    /**
+     * Event fired when a pane has been collapsed or expanded, either by the
+     * user or from the server.
+     */
+    public static class CollapseStateChangedEvent
+            extends ComponentEvent<CollapsibleSplitLayout> {
+        private final Pane pane;
+        private final boolean collapsed;
+
+        public CollapseStateChangedEvent(CollapsibleSplitLayout source,
+                boolean fromClient, Pane pane, boolean collapsed) {
+            super(source, fromClient);
+            this.pane = pane;
+            this.collapsed = collapsed;
+        }
+
+        /**
+         * Gets the pane that was collapsed or expanded.
+         *
+         * @return the pane, never {@code null}
+         */
+        public Pane getPane() {
+            return pane;
+        }
+
+        /**
+         * Gets whether the pane is now collapsed.
+         *
+         * @return {@code true} if the pane was collapsed, {@code false} if it
+         *         was expanded
+         */
+        public boolean isCollapsed() {
+            return collapsed;
+        }
+    }
+
+    /**
+     * Event fired when loading the component of a pane set with
+     * {@link CollapsibleSplitLayout#setAsyncPrimary(SerializableSupplier, Component)}
+     * or
+     * {@link CollapsibleSplitLayout#setAsyncSecondary(SerializableSupplier, Component)}
+     * has failed. The placeholder stays in the pane, and the load is retried
+     * when the pane is shown again, unless a listener replaces the placeholder,
+     * e.g. with a component describing the error.
+     */
+    public static class ContentLoadFailedEvent
+            extends ComponentEvent<CollapsibleSplitLayout> {
+        private final Pane pane;
+        private final Throwable error;
+
+        public ContentLoadFailedEvent(CollapsibleSplitLayout source,
+                Pane pane, Throwable error) {
+            super(source, false);
+            this.pane = pane;
+            this.error = error;
+        }
+
+        /**
+         * Gets the reason of the failure. A {@link CompletionException} of the
+         * future is unwrapped to its cause.
+         *
+         * @return the error, never {@code null}
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * Gets the pane whose component could not be loaded.
+         *
+         * @return the pane, never {@code null}
+         */
+        public Pane getPane() {
+            return pane;
+        }
+    }
+
+    /**
+     * Event fired when the splitter position has been changed by the user.
+     * While the splitter is dragged, the events are debounced on the client
+     * side, see
+     * {@link CollapsibleSplitLayout#setSplitterPositionChangedDebounce(int)}.
+     */
+    public static class SplitterPositionChangedEvent
+            extends ComponentEvent<CollapsibleSplitLayout> {
+        private final double position;
+        private final double positionInPixels;
+
+        public SplitterPositionChangedEvent(CollapsibleSplitLayout source,
+                boolean fromClient, double position, double positionInPixels) {
+            super(source, fromClient);
+            this.position = position;
+            this.positionInPixels = positionInPixels;
+        }
+
+        /**
+         * Gets the relative position of the splitter, i.e. the share of the
+         * primary component, in percentages.
+         *
+         * @return the relative position of the splitter
+         */
+        public double getPosition() {
+            return position;
+        }
+
+        /**
+         * Gets the size of the primary component in pixels.
+         *
+         * @return the position of the splitter in pixels
+         */
+        public double getPositionInPixels() {
+            return positionInPixels;
+        }
+    }
+
+    /**
+     * Empty component occupying a split that has no component attached.
+     */
+    private static class PanePlaceholder extends Div {
+    }
+
+    private static final String PRIMARY_COLLAPSED_PROPERTY = "primaryCollapsed";
+    private static final String SECONDARY_COLLAPSED_PROPERTY = "secondaryCollapsed";
+    private static final String SPLITTER_POSITION_PROPERTY = "splitterPosition";
+    private static final String SPLITTER_POSITION_UNIT_PROPERTY = "splitterPositionUnit";
+    private static final String SPLITTER_GROUP_PROPERTY = "splitterGroup";
+    private static final String MIN_SIZE_PROPERTY_SUFFIX = "MinSize";
+    private static final String MAX_SIZE_PROPERTY_SUFFIX = "MaxSize";
+    private static final String POSITION_EVENT_DATA = "event.detail.position";
+    private static final String PIXELS_EVENT_DATA = "event.detail.pixels";
+    private static final String SEQUENCE_EVENT_DATA = "event.detail.sequence";
+    private static final String LATENCY_EVENT_DATA = "event.detail.latency";
+    private static final String DRAG_END_ACK_PROPERTY = "dragEndAck";
+    private static final String AUTO_COLLAPSE_RULES_PROPERTY = "autoCollapseRules";
+    private static final int DEFAULT_POSITION_CHANGED_DEBOUNCE = 200;
+    // Shared by all instances, so that it is serialized once per session
+    private static final PaneParkingStrategy DEFAULT_PANE_PARKING_STRATEGY = PaneParkingStrategy
+            .keep();
+    private static final long serialVersionUID = 1L;
+
     private Component primaryComponent;
+    private SerializableSupplier<? extends Component> primaryComponentSupplier;
+    private SerializableSupplier<? extends Component> primaryComponentFactory;
     private boolean primaryComponentCollapsible;
     private Component secondaryComponent;
+    private SerializableSupplier<? extends Component> secondaryComponentSupplier;
+    private SerializableSupplier<? extends Component> secondaryComponentFactory;
     private boolean secondaryComponentCollapsible;
-    private Double splitterPosition;
+    private SerializableSupplier<CompletableFuture<? extends Component>> primaryContentLoader;
+    private SerializableSupplier<CompletableFuture<? extends Component>> secondaryContentLoader;
+    // Loads in progress are not serializable and are restarted on attach, or
+    // after deserialization if the layout is still attached, see readObject
+    private transient CompletableFuture<? extends Component> primaryContentLoad;
+    private transient CompletableFuture<? extends Component> secondaryContentLoad;
+    private boolean detachOnCollapse;
+    private PaneParkingStrategy paneParkingStrategy = DEFAULT_PANE_PARKING_STRATEGY;
+    private ResizeNotificationPolicy resizeNotificationPolicy = ResizeNotificationPolicy.LIVE;
+    private CollapseStrategy collapseStrategy = CollapseStrategy.DISPLAY_NONE;
 
-    private StateTree.ExecutionRegistration updateStylesRegistration;
+    // The registration is the listener held by the element, so serializing it
+    // only adds a reference and it is valid again after deserialization
+    private DomListenerRegistration splitterPositionChangedRegistration;
+    private SplitLayoutMetricsListener metricsListener;
+    private DomListenerRegistration dragEndMetricsRegistration;
+    private SplitterGroup.Membership splitterGroupMembership;
+    // Stores are shared by all sessions, so they are not serialized but
+    // looked up again after deserialization if a lookup is set
+    private transient LayoutStateStore layoutStateStore;
+    private SerializableSupplier<? extends LayoutStateStore> layoutStateStoreLookup;
+    private boolean layoutStateRestored;
+    private DomListenerRegistration splitterGroupSyncRegistration;
+    // Created on first use, so that layouts without styles stay small
+    private Map<String, String> primaryStyles;
+    private Map<String, String> secondaryStyles;
 
     /**
      * Constructs an empty VaadinSplitLayout.
      */
     public CollapsibleSplitLayout() {
         setOrientation(Orientation.HORIZONTAL);
-        addAttachListener(
-                e -> requestStylesUpdatesForSplitterPosition(e.getUI()));
+        // A single listener instance is registered for both properties
+        PropertyChangeListener collapsedListener = this::onCollapsedChanged;
+        getElement().addPropertyChangeListener(PRIMARY_COLLAPSED_PROPERTY,
+                "primary-collapsed-changed", collapsedListener);
+        getElement().addPropertyChangeListener(SECONDARY_COLLAPSED_PROPERTY,
+                "secondary-collapsed-changed", collapsedListener);
+        splitterPositionChangedRegistration = getElement()
+                .addEventListener("splitter-position-changed",
+                        e -> onSplitterPositionChanged(
+                                e.getEventData().getNumber(POSITION_EVENT_DATA),
+                                e.getEventData().getNumber(PIXELS_EVENT_DATA)))
+                .addEventData(POSITION_EVENT_DATA)
+                .addEventData(PIXELS_EVENT_DATA)
+                .synchronizeProperty(SPLITTER_POSITION_PROPERTY)
+                .debounce(DEFAULT_POSITION_CHANGED_DEBOUNCE);
     }
 
     /**
@@ -55,6 +269,35 @@ public class CollapsibleSplitLayout
         addToSecondary(secondaryComponent);
     }
 
+    /**
+     * Adds a listener for {@link CollapseStateChangedEvent}, which is fired
+     * when the primary or secondary component has been collapsed or expanded.
+     * The collapsed state is sent along with other changes from the client,
+     * so no additional requests are made.
+     *
+     * @param listener
+     *            the listener to add
+     * @return a registration for removing the listener
+     */
+    public Registration addCollapseStateChangedListener(
+            ComponentEventListener<CollapseStateChangedEvent> listener) {
+        return addListener(CollapseStateChangedEvent.class, listener);
+    }
+
+    /**
+     * Adds a listener for {@link ContentLoadFailedEvent}, which is fired when
+     * loading the component of a pane has failed.
+     *
+     * @param listener
+     *            the listener to add
+     * @return a registration for removing the listener
+     * @see #setAsyncPrimary(SerializableSupplier, Component)
+     */
+    public Registration addContentLoadFailedListener(
+            ComponentEventListener<ContentLoadFailedEvent> listener) {
+        return addListener(ContentLoadFailedEvent.class, listener);
+    }
+
     /**
      * Adds a listener for the {@code splitter-dragend} event, which is fired
      * when the user has stopped resizing the splitter with drag and drop.
@@ -69,6 +312,19 @@ public class CollapsibleSplitLayout
         return super.addSplitterDragendListener(listener);
     }
 
+    /**
+     * Adds a listener for {@link SplitterPositionChangedEvent}, which is fired
+     * when the user has moved the splitter.
+     *
+     * @param listener
+     *            the listener to add
+     * @return a registration for removing the listener
+     */
+    public Registration addSplitterPositionChangedListener(
+            ComponentEventListener<SplitterPositionChangedEvent> listener) {
+        return addListener(SplitterPositionChangedEvent.class, listener);
+    }
+
     /**
      * Sets the given components to the primary split of this layout, i.e. the
      * left split if in horizontal mode and the top split if in vertical mode.
@@ -91,7 +347,10 @@ public class CollapsibleSplitLayout
             container.add(components);
             primaryComponent = container;
         }
-        setComponents();
+        primaryComponentSupplier = null;
+        primaryComponentFactory = null;
+        clearContentLoader(true);
+        updateSlot(true);
     }
 
     /**
@@ -113,7 +372,123 @@ public class CollapsibleSplitLayout
             container.add(components);
             secondaryComponent = container;
         }
-        setComponents();
+        secondaryComponentSupplier = null;
+        secondaryComponentFactory = null;
+        clearContentLoader(false);
+        updateSlot(false);
+    }
+
+    private void applyInnerStyles(Element element, boolean primary) {
+        Map<String, String> styles = primary ? primaryStyles
+                : secondaryStyles;
+        if (styles != null) {
+            styles.forEach(element.getStyle()::set);
+        }
+    }
+
+    private void cancelContentLoad(boolean primary) {
+        CompletableFuture<? extends Component> load = primary
+                ? primaryContentLoad
+                : secondaryContentLoad;
+        if (primary) {
+            primaryContentLoad = null;
+        } else {
+            secondaryContentLoad = null;
+        }
+        if (load != null) {
+            load.cancel(true);
+        }
+    }
+
+    /**
+     * Removes all the rules set with
+     * {@link #setAutoCollapseBelow(Orientation, int, Pane)}. The collapsed
+     * state of the panes is not changed.
+     */
+    public void clearAutoCollapse() {
+        getElement().setPropertyJson(AUTO_COLLAPSE_RULES_PROPERTY,
+                Json.createArray());
+        reportElementUpdate(AUTO_COLLAPSE_RULES_PROPERTY);
+    }
+
+    private void clearContentLoader(boolean primary) {
+        cancelContentLoad(primary);
+        if (primary) {
+            primaryContentLoader = null;
+        } else {
+            secondaryContentLoader = null;
+        }
+    }
+
+    /**
+     * See {@link #setCollapseAnimationDuration(int)}
+     *
+     * @return the duration of the collapse animation in milliseconds, 0 if
+     *         disabled
+     */
+    public int getCollapseAnimationDuration() {
+        return getElement().getProperty("collapseAnimationDuration", 0);
+    }
+
+    /**
+     * See {@link #setCollapseAnimationEasing(String)}
+     *
+     * @return the easing of the collapse animation
+     */
+    public String getCollapseAnimationEasing() {
+        return getElement().getProperty("collapseAnimationEasing", "ease");
+    }
+
+    /**
+     * See {@link #setCollapseStrategy(CollapseStrategy)}
+     *
+     * @return the collapse strategy, never {@code null}
+     */
+    public CollapseStrategy getCollapseStrategy() {
+        return collapseStrategy;
+    }
+
+    /**
+     * See {@link #setLayoutStateStore(LayoutStateStore)}
+     *
+     * @return the store of the layout state, or {@code null} if none is set
+     */
+    public LayoutStateStore getLayoutStateStore() {
+        if (layoutStateStore == null && layoutStateStoreLookup != null) {
+            layoutStateStore = layoutStateStoreLookup.get();
+        }
+        return layoutStateStore;
+    }
+
+    /**
+     * See {@link #setMaxSize(Pane, int)}
+     *
+     * @param pane
+     *            the pane, not {@code null}
+     * @return the maximum size of the pane in pixels, 0 for no limit
+     */
+    public int getMaxSize(Pane pane) {
+        return getSizeLimit(pane, MAX_SIZE_PROPERTY_SUFFIX);
+    }
+
+    /**
+     * See {@link #setMetricsListener(SplitLayoutMetricsListener)}
+     *
+     * @return the metrics listener, or {@code null} if none is set
+     */
+    public SplitLayoutMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * See {@link #setMinSize(Pane, int)}
+     *
+     * @param pane
+     *            the pane, not {@code null}
+     * @return the minimum size of the pane in pixels, 0 for no limit
+     */
+    public int getMinSize(Pane pane) {
+        return getSizeLimit(pane, MIN_SIZE_PROPERTY_SUFFIX);
     }
 
     /**
@@ -132,8 +507,27 @@ public class CollapsibleSplitLayout
         return Orientation.valueOf(super.getOrientationString().toUpperCase());
     }
 
+    /**
+     * See {@link #setPaneParkingStrategy(PaneParkingStrategy)}
+     *
+     * @return the strategy for components of collapsed panes, never
+     *         {@code null}
+     */
+    public PaneParkingStrategy getPaneParkingStrategy() {
+        return paneParkingStrategy;
+    }
+
     /**
      * Get the component currently set to the primary split.
+     * <p>
+     * If the primary split was set with
+     * {@link #setLazyPrimary(SerializableSupplier)}, this returns {@code null}
+     * until the component has been created. If the component has been detached
+     * because of {@link #setDetachOnCollapse(boolean)}, this returns
+     * {@code null} until the primary component is expanded again. While a
+     * component set with
+     * {@link #setAsyncPrimary(SerializableSupplier, Component)} is loading,
+     * this returns the placeholder.
      *
      * @return the primary component, may be null
      */
@@ -141,15 +535,128 @@ public class CollapsibleSplitLayout
         return primaryComponent;
     }
 
+    /**
+     * See {@link #setResizeNotificationPolicy(ResizeNotificationPolicy)}
+     *
+     * @return the resize notification policy, never {@code null}
+     */
+    public ResizeNotificationPolicy getResizeNotificationPolicy() {
+        return resizeNotificationPolicy;
+    }
+
+    /**
+     * See {@link #setResizeNotificationThrottle(int)}
+     *
+     * @return the throttle timeout in milliseconds
+     */
+    public int getResizeNotificationThrottle() {
+        return getElement().getProperty("resizeNotificationThrottle", 100);
+    }
+
     /**
      * Get the component currently set to the secondary split.
+     * <p>
+     * If the secondary split was set with
+     * {@link #setLazySecondary(SerializableSupplier)}, this returns
+     * {@code null} until the component has been created. If the component has
+     * been detached because of {@link #setDetachOnCollapse(boolean)}, this
+     * returns {@code null} until the secondary component is expanded again.
+     * While a component set with
+     * {@link #setAsyncSecondary(SerializableSupplier, Component)} is loading,
+     * this returns the placeholder.
      *
-     * @return the primary component, may be null
+     * @return the secondary component, may be null
      */
     public Component getSecondaryComponent() {
         return secondaryComponent;
     }
 
+    private int getSizeLimit(Pane pane, String suffix) {
+        return getElement().getProperty(getSizeLimitProperty(pane, suffix),
+                0);
+    }
+
+    private static String getSizeLimitProperty(Pane pane, String suffix) {
+        Objects.requireNonNull(pane, "Pane cannot be null");
+        return pane.name().toLowerCase() + suffix;
+    }
+
+    /**
+     * See {@link SplitterGroup}
+     *
+     * @return the group this layout is linked to, or {@code null} if it is
+     *         not linked
+     */
+    public SplitterGroup getSplitterGroup() {
+        // Outdated when the group was unlinked while the layout was detached
+        return splitterGroupMembership == null
+                || !splitterGroupMembership.isCurrent() ? null
+                        : splitterGroupMembership.getGroup();
+    }
+
+    SplitterGroup.Membership getSplitterGroupMembership() {
+        return splitterGroupMembership;
+    }
+
+    /**
+     * Gets the position of the splitter in the unit returned by
+     * {@link #getSplitterPositionUnit()}, as last set with
+     * {@link #setSplitterPosition(double, Unit)} or reported by the client
+     * after the user has moved the splitter.
+     *
+     * @return the position of the splitter, or {@code null} if it has neither
+     *         been set nor moved
+     */
+    public Double getSplitterPosition() {
+        Serializable position = getElement()
+                .getPropertyRaw(SPLITTER_POSITION_PROPERTY);
+        return position instanceof Number ? ((Number) position).doubleValue()
+                : null;
+    }
+
+    /**
+     * See {@link #setSplitterPosition(double, Unit)}
+     *
+     * @return the unit of the splitter position, {@link Unit#PERCENTAGE} by
+     *         default
+     */
+    public Unit getSplitterPositionUnit() {
+        String unit = getElement()
+                .getProperty(SPLITTER_POSITION_UNIT_PROPERTY);
+        return Unit.PIXELS.getSymbol().equals(unit) ? Unit.PIXELS
+                : Unit.PERCENTAGE;
+    }
+
+    /**
+     * See {@link #setDeferredResize(boolean)}
+     *
+     * @return whether the components are resized only when dragging ends
+     */
+    public boolean isDeferredResize() {
+        return getElement().getProperty("deferredResize", false);
+    }
+
+    /**
+     * See {@link #setDetachOnCollapse(boolean)}
+     *
+     * @return whether components of collapsed panes are detached
+     */
+    public boolean isDetachOnCollapse() {
+        return detachOnCollapse;
+    }
+
+    /**
+     * See {@link #setPrimaryCollapsed(boolean)}
+     * <p>
+     * The returned value is synchronized from the client side, so it can be
+     * used for instance to skip updating a collapsed pane.
+     *
+     * @return whether the primary component is currently collapsed
+     */
+    public boolean isPrimaryCollapsed() {
+        return getElement().getProperty(PRIMARY_COLLAPSED_PROPERTY, false);
+    }
+
     /**
      * See {@link #setPrimaryComponentCollapsible(boolean)}
      *
@@ -159,6 +666,18 @@ public class CollapsibleSplitLayout
         return primaryComponentCollapsible;
     }
 
+    /**
+     * See {@link #setSecondaryCollapsed(boolean)}
+     * <p>
+     * The returned value is synchronized from the client side, so it can be
+     * used for instance to skip updating a collapsed pane.
+     *
+     * @return whether the secondary component is currently collapsed
+     */
+    public boolean isSecondaryCollapsed() {
+        return getElement().getProperty(SECONDARY_COLLAPSED_PROPERTY, false);
+    }
+
     /**
      * See {@link #setSecondaryComponentCollapsible(boolean)}
      *
@@ -168,6 +687,124 @@ public class CollapsibleSplitLayout
         return secondaryComponentCollapsible;
     }
 
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        if (splitterGroupMembership != null) {
+            splitterGroupMembership.getGroup().onLayoutAttached(this);
+        }
+        restoreLayoutState();
+        updateCollapsedComponents();
+    }
+
+    private void onCollapsedChanged(PropertyChangeEvent event) {
+        Pane pane = PRIMARY_COLLAPSED_PROPERTY.equals(event.getPropertyName())
+                ? Pane.PRIMARY
+                : Pane.SECONDARY;
+        boolean collapsed = Boolean.TRUE.equals(event.getValue());
+        if (collapsed == Boolean.TRUE.equals(event.getOldValue())) {
+            return;
+        }
+        updateCollapsedComponents();
+        if (event.isUserOriginated()) {
+            saveLayoutState();
+        }
+        if (metricsListener != null) {
+            if (event.isUserOriginated()) {
+                metricsListener.onClientEvent(this,
+                        pane == Pane.PRIMARY ? "primary-collapsed-changed"
+                                : "secondary-collapsed-changed");
+            }
+            metricsListener.onCollapseStateChanged(this, pane, collapsed,
+                    event.isUserOriginated());
+        }
+        fireEvent(new CollapseStateChangedEvent(this,
+                event.isUserOriginated(), pane, collapsed));
+    }
+
+    private void onContentLoaded(boolean primary,
+            CompletableFuture<? extends Component> load, Component component,
+            Throwable error) {
+        if (load != (primary ? primaryContentLoad : secondaryContentLoad)) {
+            // Cancelled or replaced in between
+            return;
+        }
+        if (primary) {
+            primaryContentLoad = null;
+        } else {
+            secondaryContentLoad = null;
+        }
+        if (error != null) {
+            // The placeholder stays, and the load is retried when the pane is
+            // shown again
+            Throwable cause = error;
+            if (cause instanceof CompletionException
+                    && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            fireEvent(new ContentLoadFailedEvent(this,
+                    primary ? Pane.PRIMARY : Pane.SECONDARY, cause));
+            return;
+        }
+        Objects.requireNonNull(component, "Content loader returned a null "
+                + (primary ? "primary" : "secondary") + " component");
+        if (primary) {
+            primaryComponent = component;
+            primaryContentLoader = null;
+        } else {
+            secondaryComponent = component;
+            secondaryContentLoader = null;
+        }
+        updateSlot(primary);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        cancelContentLoad(true);
+        cancelContentLoad(false);
+        if (splitterGroupMembership != null) {
+            // Not kept by the group while detached, see SplitterGroup
+            splitterGroupMembership.getGroup().onLayoutDetached(this);
+        }
+    }
+
+    private void onDragEndMetrics(double sequence, double latency) {
+        if (metricsListener != null) {
+            metricsListener.onClientEvent(this, "splitter-dragend");
+            if (latency >= 0) {
+                metricsListener.onDragEnd(this, (long) latency);
+            }
+            // The browser measures the time until this is applied
+            getElement().setProperty(DRAG_END_ACK_PROPERTY, sequence);
+            reportElementUpdate(DRAG_END_ACK_PROPERTY);
+        }
+    }
+
+    private void onSplitterPositionChanged(double position,
+            double positionInPixels) {
+        if (metricsListener != null) {
+            metricsListener.onClientEvent(this, "splitter-position-changed");
+        }
+        saveLayoutState();
+        fireEvent(new SplitterPositionChangedEvent(this, true, position,
+                positionInPixels));
+    }
+
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (primaryContentLoader != null || secondaryContentLoader != null) {
+            // After a failover, the layout is deserialized while attached, so
+            // onAttach is not called. The loads are restarted with the next
+            // response, once the whole session has been read.
+            in.registerValidation(() -> getUI()
+                    .ifPresent(ui -> ui.beforeClientResponse(this,
+                            context -> updateCollapsedComponents())),
+                    0);
+        }
+    }
+
     @Override
     public void remove(Component... components) {
         super.remove(components);
@@ -181,52 +818,480 @@ public class CollapsibleSplitLayout
         super.removeAll();
     }
 
-    private void requestStylesUpdatesForSplitterPosition(UI ui) {
-        if (updateStylesRegistration != null) {
-            updateStylesRegistration.remove();
+    private void reportElementUpdate(String name) {
+        if (metricsListener != null) {
+            metricsListener.onElementUpdate(this, name);
+        }
+    }
+
+    private void restoreLayoutState() {
+        LayoutStateStore store = getLayoutStateStore();
+        if (store == null || layoutStateRestored || getId().isEmpty()) {
+            return;
+        }
+        layoutStateRestored = true;
+        LayoutState state = store.load(getId().get());
+        if (state == null) {
+            return;
+        }
+        if (state.getSplitterPosition() != null) {
+            setSplitterPosition(state.getSplitterPosition(),
+                    state.getSplitterPositionUnit());
+        }
+        if (state.isPrimaryCollapsed()) {
+            setPrimaryCollapsed(true);
+        } else if (state.isSecondaryCollapsed()) {
+            setSecondaryCollapsed(true);
+        } else {
+            setPrimaryCollapsed(false);
+            setSecondaryCollapsed(false);
+        }
+    }
+
+    private void saveLayoutState() {
+        LayoutStateStore store = getLayoutStateStore();
+        if (store != null && getId().isPresent()) {
+            store.save(getId().get(),
+                    new LayoutState(getSplitterPosition(),
+                            getSplitterPositionUnit(), isPrimaryCollapsed(),
+                            isSecondaryCollapsed()));
         }
-        updateStylesRegistration = ui.beforeClientResponse(this, context -> {
-            // Remove flex property for primary and secondary children.
-            final String JS = "for(let i = 0;i < this.children.length;i++)"
-                    + "if(this.children[i].slot === 'primary'"
-                    + "   || this.children[i].slot === 'secondary')"
-                    + "this.children[i].style.flex = ''";
-            getElement().executeJs(JS);
+    }
 
-            // Update width or height if splitter position is set.
-            updateStylesForSplitterPosition();
+    /**
+     * Sets the primary component to be loaded asynchronously. Until the
+     * returned future completes, the given placeholder is shown in the primary
+     * split, so slow backend queries do not block the request thread. The
+     * loaded component is then set to the primary split with
+     * {@link UI#access(com.vaadin.flow.server.Command)}, which requires server
+     * push or polling to be enabled to reach the browser without waiting for
+     * the next request.
+     * <p>
+     * Like with {@link #setLazyPrimary(SerializableSupplier)}, the loader is
+     * called when the primary split first becomes visible. Collapsing the
+     * primary split, detaching the layout or replacing the primary component
+     * cancels the returned future and discards its result, and the loader is
+     * called again when the split is shown again. Failed loads fire a
+     * {@link ContentLoadFailedEvent} and are also retried, see
+     * {@link #addContentLoadFailedListener(ComponentEventListener)}.
+     * <p>
+     * The loader is called while the session is locked, so it should only
+     * start the work, e.g. on an executor that may also run its tasks on
+     * virtual threads:
+     *
+     * <pre>
+     * layout.setAsyncPrimary(() -&gt; CompletableFuture
+     *         .supplyAsync(() -&gt; new Details(service.fetch()), executor),
+     *         new ProgressBar());
+     * </pre>
+     *
+     * Cancelling a future does not interrupt the task computing it.
+     *
+     * @param loader
+     *            the loader starting to create the primary component, not
+     *            {@code null}
+     * @param placeholder
+     *            the component shown until the primary component has been
+     *            loaded, or {@code null} for an empty placeholder
+     */
+    public void setAsyncPrimary(
+            SerializableSupplier<CompletableFuture<? extends Component>> loader,
+            Component placeholder) {
+        Objects.requireNonNull(loader, "Loader cannot be null");
+        addToPrimary(placeholder == null ? new PanePlaceholder()
+                : placeholder);
+        primaryContentLoader = loader;
+        updateCollapsedComponents();
+    }
 
-            updateStylesRegistration = null;
-        });
+    /**
+     * Sets the secondary component to be loaded asynchronously, showing the
+     * given placeholder in the secondary split until then. See
+     * {@link #setAsyncPrimary(SerializableSupplier, Component)}.
+     *
+     * @param loader
+     *            the loader starting to create the secondary component, not
+     *            {@code null}
+     * @param placeholder
+     *            the component shown until the secondary component has been
+     *            loaded, or {@code null} for an empty placeholder
+     */
+    public void setAsyncSecondary(
+            SerializableSupplier<CompletableFuture<? extends Component>> loader,
+            Component placeholder) {
+        Objects.requireNonNull(loader, "Loader cannot be null");
+        addToSecondary(placeholder == null ? new PanePlaceholder()
+                : placeholder);
+        secondaryContentLoader = loader;
+        updateCollapsedComponents();
+    }
+
+    /**
+     * Collapses the given pane while the width ({@link Orientation#HORIZONTAL})
+     * or the height ({@link Orientation#VERTICAL}) of this layout is below the
+     * given number of pixels, and expands it when the size grows over it
+     * again, unless the user has expanded the pane in between.
+     * <p>
+     * The size is observed in the browser, so the server is only contacted
+     * when the collapsed state of a pane changes, like when the user collapses
+     * it. Replaces an earlier rule for the same orientation and pane.
+     *
+     * @param orientation
+     *            the orientation whose size is observed, not {@code null}
+     * @param pixels
+     *            the breakpoint in pixels, 0 to remove the rule
+     * @param pane
+     *            the pane to collapse, not {@code null}
+     * @see #clearAutoCollapse()
+     */
+    public void setAutoCollapseBelow(Orientation orientation, int pixels,
+            Pane pane) {
+        Objects.requireNonNull(orientation, "Orientation cannot be null");
+        Objects.requireNonNull(pane, "Pane cannot be null");
+        if (pixels < 0) {
+            throw new IllegalArgumentException(
+                    "Auto-collapse breakpoint cannot be negative");
+        }
+        String dimension = orientation == Orientation.HORIZONTAL ? "width"
+                : "height";
+        String paneName = pane.name().toLowerCase();
+
+        JsonArray rules = Json.createArray();
+        Serializable current = getElement()
+                .getPropertyRaw(AUTO_COLLAPSE_RULES_PROPERTY);
+        if (current instanceof JsonArray) {
+            JsonArray currentRules = (JsonArray) current;
+            for (int i = 0; i < currentRules.length(); i++) {
+                JsonObject rule = currentRules.getObject(i);
+                if (!dimension.equals(rule.getString("dimension"))
+                        || !paneName.equals(rule.getString("pane"))) {
+                    rules.set(rules.length(), rule);
+                }
+            }
+        }
+        if (pixels > 0) {
+            JsonObject rule = Json.createObject();
+            rule.put("dimension", dimension);
+            rule.put("below", pixels);
+            rule.put("pane", paneName);
+            rules.set(rules.length(), rule);
+        }
+        getElement().setPropertyJson(AUTO_COLLAPSE_RULES_PROPERTY, rules);
+        reportElementUpdate(AUTO_COLLAPSE_RULES_PROPERTY);
+    }
+
+    /**
+     * Sets the duration of the animation sliding a pane out when it is
+     * collapsed and in when it is expanded. Only the transform and opacity of
+     * the pane are animated, and a collapsed pane is removed from the layout
+     * when the animation has finished. The animation is not run for users who
+     * prefer reduced motion. Default is 0, which disables the animation.
+     *
+     * @param duration
+     *            the duration in milliseconds, 0 to disable the animation
+     */
+    public void setCollapseAnimationDuration(int duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException(
+                    "Collapse animation duration cannot be negative");
+        }
+        getElement().setProperty("collapseAnimationDuration", duration);
+        reportElementUpdate("collapseAnimationDuration");
+    }
+
+    /**
+     * Sets the easing of the collapse animation as a CSS easing function, such
+     * as {@code ease-in-out} or {@code cubic-bezier(0.2, 0, 0, 1)}. Default is
+     * {@code ease}.
+     *
+     * @param easing
+     *            the easing function, not {@code null}
+     * @see #setCollapseAnimationDuration(int)
+     */
+    public void setCollapseAnimationEasing(String easing) {
+        Objects.requireNonNull(easing, "Easing cannot be null");
+        getElement().setProperty("collapseAnimationEasing", easing);
+        reportElementUpdate("collapseAnimationEasing");
+    }
+
+    /**
+     * Sets how the component of a collapsed pane is hidden in the browser.
+     * {@link CollapseStrategy#CONTENT_VISIBILITY} keeps the rendering state of
+     * the component, so that panes with large content, such as grids, are
+     * expanded faster. Default is {@link CollapseStrategy#DISPLAY_NONE}.
+     *
+     * @param collapseStrategy
+     *            the strategy to use, not {@code null}
+     */
+    public void setCollapseStrategy(CollapseStrategy collapseStrategy) {
+        Objects.requireNonNull(collapseStrategy,
+                "Collapse strategy cannot be null");
+        this.collapseStrategy = collapseStrategy;
+        getElement().setProperty("collapseStrategy",
+                collapseStrategy.getStrategyName());
+        reportElementUpdate("collapseStrategy");
     }
 
     private void setComponents() {
         removeAll();
-        if (primaryComponent == null) {
-            super.addToPrimary(new Div());
+        Component primary = primaryComponent == null ? new PanePlaceholder()
+                : primaryComponent;
+        Component secondary = secondaryComponent == null
+                ? new PanePlaceholder()
+                : secondaryComponent;
+        super.addToPrimary(primary);
+        super.addToSecondary(secondary);
+        applyInnerStyles(primary.getElement(), true);
+        applyInnerStyles(secondary.getElement(), false);
+        reportElementUpdate("children");
+    }
+
+    /**
+     * If set to true, dragging the splitter only moves a lightweight preview of
+     * the splitter, and the primary and secondary components are resized once
+     * when the drag ends. This keeps dragging smooth when the components are
+     * expensive to lay out, such as large grids or charts.
+     *
+     * @param deferredResize
+     *            The boolean value to set
+     */
+    public void setDeferredResize(boolean deferredResize) {
+        getElement().setProperty("deferredResize", deferredResize);
+        reportElementUpdate("deferredResize");
+    }
+
+    /**
+     * If set to true, the component of a collapsed pane is detached from this
+     * layout, releasing its client side state and server side attach
+     * resources, and re-attached when the pane is expanded. What is retained
+     * in between is decided by the {@link PaneParkingStrategy}, which by
+     * default keeps the component instance.
+     * <p>
+     * While detached, an empty placeholder takes the place of the component,
+     * so the expanded pane is briefly empty until the server responds.
+     *
+     * @param detachOnCollapse
+     *            The boolean value to set
+     * @see #setPaneParkingStrategy(PaneParkingStrategy)
+     */
+    public void setDetachOnCollapse(boolean detachOnCollapse) {
+        this.detachOnCollapse = detachOnCollapse;
+        updateCollapsedComponents();
+    }
+
+    private void setInnerComponentStyle(String styleName, String value,
+            boolean primary) {
+        Map<String, String> styles = primary ? primaryStyles
+                : secondaryStyles;
+        if (styles == null) {
+            styles = new LinkedHashMap<>();
+            if (primary) {
+                primaryStyles = styles;
+            } else {
+                secondaryStyles = styles;
+            }
+        }
+        if (value == null) {
+            styles.remove(styleName);
         } else {
-            super.addToPrimary(primaryComponent);
+            styles.put(styleName, value);
         }
-        if (secondaryComponent == null) {
-            super.addToSecondary(new Div());
+        if (getElement().getChildCount() != 2) {
+            // Styles the children when they are added
+            setComponents();
         } else {
-            super.addToSecondary(secondaryComponent);
+            // The component, or the placeholder of an empty split
+            getElement().getChild(primary ? 0 : 1).getStyle().set(styleName,
+                    value);
         }
+        reportElementUpdate("style");
     }
 
-    private void setInnerComponentStyle(String styleName, String value,
-            boolean primary) {
-        Component innerComponent = primary ? primaryComponent
-                : secondaryComponent;
-        if (innerComponent != null) {
-            innerComponent.getElement().getStyle().set(styleName, value);
-        } else {
-            getElement().executeJs(
-                    "var element = this.children[$0]; if (element) { element.style[$1]=$2; }",
-                    primary ? 0 : 1, styleName, value);
+    /**
+     * Sets the store the splitter position and collapsed panes of this layout
+     * are saved to and restored from, keyed by the id of this layout, see
+     * {@link #setId(String)}. Layouts without an id are neither saved nor
+     * restored.
+     * <p>
+     * The saved state is applied when the layout is first attached, before it
+     * is rendered, so it is restored without a jump of the splitter or an
+     * additional round trip. The state is saved when the user has moved the
+     * splitter or collapsed or expanded a pane.
+     * <p>
+     * The store is not serialized with the layout, as it is shared by all
+     * sessions. After the session has been deserialized, the state is no
+     * longer saved until the store is set again. When sessions are serialized,
+     * e.g. with session replication, use
+     * {@link #setLayoutStateStore(SerializableSupplier)} instead.
+     *
+     * @param layoutStateStore
+     *            the store, or {@code null} to neither save nor restore the
+     *            state
+     * @see InMemoryLayoutStateStore
+     * @see FileLayoutStateStore
+     */
+    public void setLayoutStateStore(LayoutStateStore layoutStateStore) {
+        this.layoutStateStore = layoutStateStore;
+        layoutStateStoreLookup = null;
+        layoutStateRestored = false;
+        if (isAttached()) {
+            restoreLayoutState();
+            updateCollapsedComponents();
+        }
+    }
+
+    /**
+     * Sets the store of the layout state like
+     * {@link #setLayoutStateStore(LayoutStateStore)}, looked up with the given
+     * function. Only the function is serialized with the layout, so the store
+     * is looked up again after the session has been deserialized, e.g. on
+     * another server after a failover, and the state is still saved:
+     *
+     * <pre>
+     * layout.setLayoutStateStore(() -&gt; MyApplication.LAYOUT_STATES);
+     * </pre>
+     *
+     * @param lookup
+     *            the function returning the shared store, or {@code null} to
+     *            neither save nor restore the state
+     */
+    public void setLayoutStateStore(
+            SerializableSupplier<? extends LayoutStateStore> lookup) {
+        layoutStateStoreLookup = lookup;
+        layoutStateStore = null;
+        layoutStateRestored = false;
+        if (isAttached()) {
+            restoreLayoutState();
+            updateCollapsedComponents();
+        }
+    }
+
+    /**
+     * Sets the primary component to be created lazily by the given supplier.
+     * Until the primary split first becomes visible, i.e. the layout is
+     * attached and the primary component is not collapsed, only an empty
+     * placeholder is attached to the primary split. Combined with
+     * {@link #setPrimaryCollapsed(boolean)} this avoids building the component
+     * tree of panes the user never opens.
+     * <p>
+     * The supplier is called at most once. Calling
+     * {@link #addToPrimary(Component...)} before that discards the supplier.
+     *
+     * @param supplier
+     *            the supplier creating the primary component, not {@code null}
+     */
+    public void setLazyPrimary(
+            SerializableSupplier<? extends Component> supplier) {
+        Objects.requireNonNull(supplier, "Supplier cannot be null");
+        primaryComponent = null;
+        primaryComponentSupplier = supplier;
+        primaryComponentFactory = supplier;
+        clearContentLoader(true);
+        updateSlot(true);
+        updateCollapsedComponents();
+    }
+
+    /**
+     * Sets the secondary component to be created lazily by the given
+     * supplier. Until the secondary split first becomes visible, i.e. the
+     * layout is attached and the secondary component is not collapsed, only an
+     * empty placeholder is attached to the secondary split. Combined with
+     * {@link #setSecondaryCollapsed(boolean)} this avoids building the
+     * component tree of panes the user never opens.
+     * <p>
+     * The supplier is called at most once. Calling
+     * {@link #addToSecondary(Component...)} before that discards the supplier.
+     *
+     * @param supplier
+     *            the supplier creating the secondary component, not
+     *            {@code null}
+     */
+    public void setLazySecondary(
+            SerializableSupplier<? extends Component> supplier) {
+        Objects.requireNonNull(supplier, "Supplier cannot be null");
+        secondaryComponent = null;
+        secondaryComponentSupplier = supplier;
+        secondaryComponentFactory = supplier;
+        clearContentLoader(false);
+        updateSlot(false);
+        updateCollapsedComponents();
+    }
+
+    /**
+     * Sets the maximum width (in horizontal mode) or height (in vertical mode)
+     * of a pane in pixels. The limit is enforced in the browser, both when the
+     * user drags the splitter and when the layout is resized, without a round
+     * trip to the server.
+     * <p>
+     * It is preferred to set the limits only for a single pane, in order to
+     * avoid size conflicts. The limits take precedence over the splitter
+     * position, which is applied within them in the browser.
+     *
+     * @param pane
+     *            the pane to limit, not {@code null}
+     * @param pixels
+     *            the maximum size in pixels, 0 for no limit
+     * @throws IllegalArgumentException
+     *             if the size is negative or smaller than the minimum size of
+     *             the pane
+     * @see #setMinSize(Pane, int)
+     */
+    public void setMaxSize(Pane pane, int pixels) {
+        setSizeLimit(pane, MAX_SIZE_PROPERTY_SUFFIX, pixels);
+    }
+
+    /**
+     * Sets the listener receiving the activity of this layout for collecting
+     * metrics, such as {@link RegistryMetricsListener}. While a listener is
+     * set, the end of each drag is sent to the server and acknowledged to the
+     * browser, which measures the time in between, see
+     * {@link SplitLayoutMetricsListener#onDragEnd}.
+     *
+     * @param metricsListener
+     *            the listener, or {@code null} to stop collecting metrics
+     */
+    public void setMetricsListener(SplitLayoutMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        if (metricsListener != null && dragEndMetricsRegistration == null) {
+            dragEndMetricsRegistration = getElement()
+                    .addEventListener("splitter-dragend",
+                            e -> onDragEndMetrics(
+                                    e.getEventData()
+                                            .getNumber(SEQUENCE_EVENT_DATA),
+                                    e.getEventData()
+                                            .getNumber(LATENCY_EVENT_DATA)))
+                    .addEventData(SEQUENCE_EVENT_DATA)
+                    .addEventData(LATENCY_EVENT_DATA);
+        } else if (metricsListener == null
+                && dragEndMetricsRegistration != null) {
+            dragEndMetricsRegistration.remove();
+            dragEndMetricsRegistration = null;
         }
     }
 
+    /**
+     * Sets the minimum width (in horizontal mode) or height (in vertical mode)
+     * of a pane in pixels. The limit is enforced in the browser, both when the
+     * user drags the splitter and when the layout is resized, without a round
+     * trip to the server.
+     * <p>
+     * A pane with a minimum size cannot be collapsed by dragging the splitter,
+     * but it can still be collapsed with the toggle buttons or
+     * {@link #setPrimaryCollapsed(boolean)}.
+     *
+     * @param pane
+     *            the pane to limit, not {@code null}
+     * @param pixels
+     *            the minimum size in pixels, 0 for no limit
+     * @throws IllegalArgumentException
+     *             if the size is negative or larger than the maximum size of
+     *             the pane
+     * @see #setMaxSize(Pane, int)
+     */
+    public void setMinSize(Pane pane, int pixels) {
+        setSizeLimit(pane, MIN_SIZE_PROPERTY_SUFFIX, pixels);
+    }
+
     /**
      * Set the orientation of the SplitLayout.
      * <p>
@@ -240,6 +1305,41 @@ public class CollapsibleSplitLayout
     public void setOrientation(Orientation orientation) {
         Objects.requireNonNull(orientation, "Orientation cannot be null");
         this.setOrientation(orientation.toString().toLowerCase());
+        reportElementUpdate("orientation");
+    }
+
+    /**
+     * Sets the strategy deciding what is retained of the component of a
+     * collapsed pane when {@link #setDetachOnCollapse(boolean)} is enabled.
+     * Default is {@link PaneParkingStrategy#keep()}.
+     *
+     * @param paneParkingStrategy
+     *            the strategy to use, not {@code null}
+     */
+    public void setPaneParkingStrategy(
+            PaneParkingStrategy paneParkingStrategy) {
+        this.paneParkingStrategy = Objects.requireNonNull(paneParkingStrategy,
+                "Pane parking strategy cannot be null");
+    }
+
+    /**
+     * Collapses or expands the primary component. Collapsing the primary
+     * component expands the secondary component.
+     * <p>
+     * The collapsed state is synchronized from the client side, so it also
+     * reflects collapsing and expanding done by the user.
+     *
+     * @param collapsed
+     *            {@code true} to collapse the primary component, {@code false}
+     *            to expand it
+     * @see #addCollapseStateChangedListener(ComponentEventListener)
+     */
+    public void setPrimaryCollapsed(boolean collapsed) {
+        if (collapsed) {
+            getElement().setProperty(SECONDARY_COLLAPSED_PROPERTY, false);
+        }
+        getElement().setProperty(PRIMARY_COLLAPSED_PROPERTY, collapsed);
+        reportElementUpdate(PRIMARY_COLLAPSED_PROPERTY);
     }
 
     /**
@@ -256,6 +1356,10 @@ public class CollapsibleSplitLayout
 
     /**
      * Set a style to the component in the primary split.
+     * <p>
+     * The style is kept for the split, so it is also applied to components set
+     * later, such as a lazily created or asynchronously loaded component
+     * replacing its placeholder. A {@code null} value removes the style.
      *
      * @param styleName
      *            name of the style to set
@@ -266,6 +1370,59 @@ public class CollapsibleSplitLayout
         setInnerComponentStyle(styleName, value, true);
     }
 
+    /**
+     * Sets when nested resizable elements, such as charts or other split
+     * layouts, are notified with an {@code iron-resize} event while the
+     * splitter is dragged. With deeply nested layouts, notifying on every frame
+     * makes all descendants recompute their layout many times per second.
+     * Default is {@link ResizeNotificationPolicy#LIVE}.
+     *
+     * @param resizeNotificationPolicy
+     *            the policy to use, not {@code null}
+     * @see #setResizeNotificationThrottle(int)
+     */
+    public void setResizeNotificationPolicy(
+            ResizeNotificationPolicy resizeNotificationPolicy) {
+        Objects.requireNonNull(resizeNotificationPolicy,
+                "Resize notification policy cannot be null");
+        this.resizeNotificationPolicy = resizeNotificationPolicy;
+        getElement().setProperty("resizeNotification",
+                resizeNotificationPolicy.getPolicyName());
+        reportElementUpdate("resizeNotification");
+    }
+
+    /**
+     * Sets the throttle timeout used with
+     * {@link ResizeNotificationPolicy#THROTTLED}. Default is 100 milliseconds.
+     *
+     * @param timeout
+     *            the throttle timeout in milliseconds
+     */
+    public void setResizeNotificationThrottle(int timeout) {
+        getElement().setProperty("resizeNotificationThrottle", timeout);
+        reportElementUpdate("resizeNotificationThrottle");
+    }
+
+    /**
+     * Collapses or expands the secondary component. Collapsing the secondary
+     * component expands the primary component.
+     * <p>
+     * The collapsed state is synchronized from the client side, so it also
+     * reflects collapsing and expanding done by the user.
+     *
+     * @param collapsed
+     *            {@code true} to collapse the secondary component,
+     *            {@code false} to expand it
+     * @see #addCollapseStateChangedListener(ComponentEventListener)
+     */
+    public void setSecondaryCollapsed(boolean collapsed) {
+        if (collapsed) {
+            getElement().setProperty(PRIMARY_COLLAPSED_PROPERTY, false);
+        }
+        getElement().setProperty(SECONDARY_COLLAPSED_PROPERTY, collapsed);
+        reportElementUpdate(SECONDARY_COLLAPSED_PROPERTY);
+    }
+
     /**
      * If set to true, will enable the user to collapse the secondary component
      * of the VaadinSplitLayout.
@@ -280,6 +1437,10 @@ public class CollapsibleSplitLayout
 
     /**
      * Set a style to the component in the secondary split.
+     * <p>
+     * The style is kept for the split, so it is also applied to components set
+     * later, such as a lazily created or asynchronously loaded component
+     * replacing its placeholder. A {@code null} value removes the style.
      *
      * @param styleName
      *            name of the style to set
@@ -290,19 +1451,224 @@ public class CollapsibleSplitLayout
         setInnerComponentStyle(styleName, value, false);
     }
 
+    private void setSizeLimit(Pane pane, String suffix, int pixels) {
+        String property = getSizeLimitProperty(pane, suffix);
+        if (pixels < 0) {
+            throw new IllegalArgumentException(
+                    "Size cannot be negative, was " + pixels);
+        }
+        if (pixels > 0) {
+            boolean min = MIN_SIZE_PROPERTY_SUFFIX.equals(suffix);
+            int minSize = min ? pixels
+                    : getSizeLimit(pane, MIN_SIZE_PROPERTY_SUFFIX);
+            int maxSize = min ? getSizeLimit(pane, MAX_SIZE_PROPERTY_SUFFIX)
+                    : pixels;
+            if (maxSize > 0 && minSize > maxSize) {
+                throw new IllegalArgumentException("Minimum size " + minSize
+                        + " of the " + pane.name().toLowerCase()
+                        + " pane is larger than its maximum size " + maxSize);
+            }
+        }
+        if (pixels == 0) {
+            getElement().removeProperty(property);
+        } else {
+            getElement().setProperty(property, pixels);
+        }
+        reportElementUpdate(property);
+    }
+
+    void setSplitterGroupMembership(SplitterGroup.Membership membership) {
+        this.splitterGroupMembership = membership;
+        if (membership == null) {
+            getElement().removeProperty(SPLITTER_GROUP_PROPERTY);
+            if (splitterGroupSyncRegistration != null) {
+                splitterGroupSyncRegistration.remove();
+                splitterGroupSyncRegistration = null;
+            }
+        } else {
+            getElement().setProperty(SPLITTER_GROUP_PROPERTY,
+                    membership.getGroup().getName());
+            if (splitterGroupSyncRegistration == null) {
+                // Sent once by the dragged layout when the drag ends, the
+                // position is then applied to the other layouts of the group
+                splitterGroupSyncRegistration = getElement()
+                        .addEventListener("splitter-group-sync",
+                                e -> splitterGroupMembership.getGroup()
+                                        .synchronizeSplitterPosition(this))
+                        .synchronizeProperty(SPLITTER_POSITION_PROPERTY)
+                        .synchronizeProperty(SPLITTER_POSITION_UNIT_PROPERTY);
+            }
+        }
+        reportElementUpdate(SPLITTER_GROUP_PROPERTY);
+    }
+
     /**
      * Sets the relative position of the splitter in percentages. The given
      * value is used to set how much space is given to the primary component
      * relative to the secondary component. In horizontal mode this is the width
      * of the component and in vertical mode this is the height. The given value
      * will automatically be clamped to the range [0, 100].
+     * <p>
+     * The position is applied by the web component when it renders, also when
+     * the components are replaced or the orientation is changed.
      *
      * @param position
      *            the relative position of the splitter, in percentages
      */
     public void setSplitterPosition(double position) {
-        splitterPosition = position;
-        getUI().ifPresent(this::requestStylesUpdatesForSplitterPosition);
+        setSplitterPosition(position, Unit.PERCENTAGE);
+    }
+
+    /**
+     * Sets the position of the splitter either in percentages, like
+     * {@link #setSplitterPosition(double)}, or in pixels. In pixels, the
+     * position is the width (in horizontal mode) or the height (in vertical
+     * mode) of the primary component, which then keeps its size when the
+     * layout is resized, while the secondary component takes the rest.
+     * <p>
+     * After the user has moved the splitter, the client reports the position
+     * in the same unit.
+     *
+     * @param position
+     *            the position of the splitter
+     * @param unit
+     *            {@link Unit#PERCENTAGE} or {@link Unit#PIXELS}, not
+     *            {@code null}
+     * @throws IllegalArgumentException
+     *             if the unit is neither percentages nor pixels
+     */
+    public void setSplitterPosition(double position, Unit unit) {
+        Objects.requireNonNull(unit, "Unit cannot be null");
+        if (unit != Unit.PERCENTAGE && unit != Unit.PIXELS) {
+            throw new IllegalArgumentException(
+                    "Unit must be PERCENTAGE or PIXELS, was " + unit);
+        }
+        getElement().setProperty(SPLITTER_POSITION_UNIT_PROPERTY,
+                unit.getSymbol());
+        getElement().setProperty(SPLITTER_POSITION_PROPERTY, position);
+        reportElementUpdate(SPLITTER_POSITION_PROPERTY);
+    }
+
+    /**
+     * Sets the timeout for debouncing {@link SplitterPositionChangedEvent}s on
+     * the client side: while the splitter is dragged, an event is sent to the
+     * server only once the splitter has not been moved for the given time.
+     * This replaces any throttling set with
+     * {@link #setSplitterPositionChangedThrottle(int)}. Default is 200
+     * milliseconds.
+     *
+     * @param timeout
+     *            the debounce timeout in milliseconds, or 0 to send an event
+     *            for every move
+     */
+    public void setSplitterPositionChangedDebounce(int timeout) {
+        splitterPositionChangedRegistration.debounce(timeout);
+    }
+
+    /**
+     * Sets the timeout for throttling {@link SplitterPositionChangedEvent}s on
+     * the client side: while the splitter is dragged, at most one event is sent
+     * to the server per the given time. This replaces any debouncing set with
+     * {@link #setSplitterPositionChangedDebounce(int)}.
+     *
+     * @param timeout
+     *            the throttle timeout in milliseconds, or 0 to send an event
+     *            for every move
+     */
+    public void setSplitterPositionChangedThrottle(int timeout) {
+        splitterPositionChangedRegistration.throttle(timeout);
+    }
+
+    /*
+     * Applies the position mirrored by another layout of the group in the
+     * browser, saving it like a position set by the user.
+     */
+    void setSplitterPositionFromGroup(double position, Unit unit) {
+        Double current = getSplitterPosition();
+        if (current == null || current != position
+                || getSplitterPositionUnit() != unit) {
+            setSplitterPosition(position, unit);
+        }
+        saveLayoutState();
+    }
+
+    private void startContentLoad(boolean primary) {
+        SerializableSupplier<CompletableFuture<? extends Component>> loader = primary
+                ? primaryContentLoader
+                : secondaryContentLoader;
+        CompletableFuture<? extends Component> pending = primary
+                ? primaryContentLoad
+                : secondaryContentLoad;
+        if (loader == null || pending != null) {
+            return;
+        }
+        UI ui = getUI().orElseThrow();
+        CompletableFuture<? extends Component> load = Objects.requireNonNull(
+                loader.get(), "Content loader returned null");
+        if (primary) {
+            primaryContentLoad = load;
+        } else {
+            secondaryContentLoad = load;
+        }
+        load.whenComplete((component, error) -> {
+            if (error instanceof CancellationException) {
+                return;
+            }
+            try {
+                ui.access(() -> onContentLoaded(primary, load, component,
+                        error));
+            } catch (UIDetachedException e) {
+                // The UI has been closed while loading
+            }
+        });
+    }
+
+    private void updateCollapsedComponents() {
+        if (!isAttached()) {
+            return;
+        }
+        if (isPrimaryCollapsed()) {
+            if (detachOnCollapse && primaryComponent != null) {
+                Component parked = primaryComponent;
+                primaryComponent = null;
+                updateSlot(true);
+                primaryComponentSupplier = Objects.requireNonNull(
+                        paneParkingStrategy.park(parked,
+                                primaryComponentFactory),
+                        "Pane parking strategy returned null");
+            }
+            cancelContentLoad(true);
+        } else {
+            if (primaryComponentSupplier != null) {
+                primaryComponent = Objects.requireNonNull(
+                        primaryComponentSupplier.get(),
+                        "Primary component supplier returned null");
+                primaryComponentSupplier = null;
+                updateSlot(true);
+            }
+            startContentLoad(true);
+        }
+        if (isSecondaryCollapsed()) {
+            if (detachOnCollapse && secondaryComponent != null) {
+                Component parked = secondaryComponent;
+                secondaryComponent = null;
+                updateSlot(false);
+                secondaryComponentSupplier = Objects.requireNonNull(
+                        paneParkingStrategy.park(parked,
+                                secondaryComponentFactory),
+                        "Pane parking strategy returned null");
+            }
+            cancelContentLoad(false);
+        } else {
+            if (secondaryComponentSupplier != null) {
+                secondaryComponent = Objects.requireNonNull(
+                        secondaryComponentSupplier.get(),
+                        "Secondary component supplier returned null");
+                secondaryComponentSupplier = null;
+                updateSlot(false);
+            }
+            startContentLoad(false);
+        }
     }
 
     private void updateCollapsibleComponents() {
@@ -318,21 +1684,41 @@ public class CollapsibleSplitLayout
         } else {
             getElement().setAttribute(attributeName, "none");
         }
+        reportElementUpdate(attributeName);
     }
 
-    private void updateStylesForSplitterPosition() {
-        if (splitterPosition == null) {
+    /**
+     * Replaces only the element in the given slot, so that the other slot is
+     * neither detached nor resent to the client.
+     */
+    private void updateSlot(boolean primary) {
+        Element layout = getElement();
+        if (layout.getChildCount() != 2) {
+            // First components, or children modified through the Element API
+            setComponents();
             return;
         }
-        double primary = Math.min(Math.max(splitterPosition, 0), 100);
-        double secondary = 100 - primary;
-        String styleName;
-        if (getOrientation() == Orientation.VERTICAL) {
-            styleName = ElementConstants.STYLE_HEIGHT;
-        } else {
-            styleName = ElementConstants.STYLE_WIDTH;
+        int index = primary ? 0 : 1;
+        Element current = layout.getChild(index);
+        Component component = primary ? primaryComponent : secondaryComponent;
+        if (component == null) {
+            if (current.getComponent()
+                    .filter(PanePlaceholder.class::isInstance).isPresent()) {
+                return;
+            }
+            component = new PanePlaceholder();
+        } else if (current.equals(component.getElement())) {
+            return;
+        } else if (layout.equals(component.getElement().getParent())) {
+            // Component moves from the other slot
+            setComponents();
+            return;
         }
-        setPrimaryStyle(styleName, primary + "%");
-        setSecondaryStyle(styleName, secondary + "%");
+        current.removeAttribute("slot");
+        component.getElement().setAttribute("slot",
+                primary ? "primary" : "secondary");
+        layout.setChild(index, component.getElement());
+        applyInnerStyles(component.getElement(), primary);
+        reportElementUpdate("children");
     }
 }
@@ -0,0 +1,244 @@
+package org.vaadin.tarek;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.Unit;
+
+/**
+ * Keeps the states of layouts in a properties file. The file is read when the
+ * store is created, and the saved states are written to it in the background,
+ * at most once per write delay, so saving a state does not block the request
+ * thread and the states of many layouts are written together.
+ * <p>
+ * The store should be closed when the application is stopped, which writes the
+ * states saved since the last write. States saved after closing, e.g. by
+ * requests still handled while the application is stopped, are kept in memory
+ * but no longer written.
+ */
+public class FileLayoutStateStore implements LayoutStateStore, AutoCloseable {
+
+    private static final Duration DEFAULT_WRITE_DELAY = Duration.ofSeconds(5);
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+    private static final String SEPARATOR = ";";
+
+    private final Path file;
+    private final Duration writeDelay;
+    private final Map<String, LayoutState> states = new HashMap<>();
+    private final ScheduledThreadPoolExecutor writer;
+    // Held from taking the snapshot until the file is replaced, so that a
+    // flush and the background write never replace newer states with older
+    private final Object fileLock = new Object();
+    private boolean writeScheduled;
+
+    /**
+     * Creates a store writing the states to the given file at most every five
+     * seconds.
+     *
+     * @param file
+     *            the file to read and write the states, not {@code null}
+     * @throws UncheckedIOException
+     *             if the file exists but cannot be read
+     */
+    public FileLayoutStateStore(Path file) {
+        this(file, DEFAULT_WRITE_DELAY);
+    }
+
+    /**
+     * Creates a store writing the states to the given file at most once per
+     * the given delay.
+     *
+     * @param file
+     *            the file to read and write the states, not {@code null}
+     * @param writeDelay
+     *            the delay from saving a state to writing the file, not
+     *            {@code null}
+     * @throws UncheckedIOException
+     *             if the file exists but cannot be read
+     */
+    public FileLayoutStateStore(Path file, Duration writeDelay) {
+        this.file = Objects.requireNonNull(file, "File cannot be null");
+        this.writeDelay = Objects.requireNonNull(writeDelay,
+                "Write delay cannot be null");
+        read();
+        writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable,
+                    "layout-state-writer-" + file.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A pending write is replaced by the flush when closing
+        writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Stops the background writer, waiting for a write in progress to finish,
+     * and writes the states saved since the last write.
+     *
+     * @throws UncheckedIOException
+     *             if the file cannot be written
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            writer.shutdown();
+        }
+        try {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT.toMillis(),
+                    TimeUnit.MILLISECONDS)) {
+                LoggerFactory.getLogger(FileLayoutStateStore.class).warn(
+                        "Writing the layout states to {} did not finish in {}",
+                        file, CLOSE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private static LayoutState decode(String value) {
+        String[] parts = value.split(SEPARATOR, -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            Double position = parts[0].isEmpty() ? null
+                    : Double.valueOf(parts[0]);
+            Unit unit = Unit.PIXELS.getSymbol().equals(parts[1]) ? Unit.PIXELS
+                    : Unit.PERCENTAGE;
+            return new LayoutState(position, unit,
+                    Boolean.parseBoolean(parts[2]),
+                    Boolean.parseBoolean(parts[3]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String encode(LayoutState state) {
+        return (state.getSplitterPosition() == null ? ""
+                : state.getSplitterPosition().toString()) + SEPARATOR
+                + state.getSplitterPositionUnit().getSymbol() + SEPARATOR
+                + state.isPrimaryCollapsed() + SEPARATOR
+                + state.isSecondaryCollapsed();
+    }
+
+    /**
+     * Writes the saved states to the file right away. Waits for a background
+     * write in progress, so the file always ends up with the latest states.
+     *
+     * @throws UncheckedIOException
+     *             if the file cannot be written
+     */
+    public void flush() {
+        synchronized (fileLock) {
+            Properties properties = new Properties();
+            synchronized (this) {
+                writeScheduled = false;
+                states.forEach((id, state) -> properties.setProperty(id,
+                        encode(state)));
+            }
+            writeFile(properties);
+        }
+    }
+
+    @Override
+    public synchronized LayoutState load(String layoutId) {
+        return states.get(Objects.requireNonNull(layoutId,
+                "Layout id cannot be null"));
+    }
+
+    private void read() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file,
+                StandardCharsets.UTF_8)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Reading the layout states from " + file + " failed", e);
+        }
+        properties.stringPropertyNames().forEach(id -> {
+            LayoutState state = decode(properties.getProperty(id));
+            if (state != null) {
+                states.put(id, state);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The state is written to the file with the next background write, or
+     * only kept in memory if the store has been closed.
+     */
+    @Override
+    public synchronized void save(String layoutId, LayoutState state) {
+        Objects.requireNonNull(layoutId, "Layout id cannot be null");
+        Objects.requireNonNull(state, "State cannot be null");
+        if (state.equals(states.put(layoutId, state)) || writeScheduled) {
+            return;
+        }
+        if (writer.isShutdown()) {
+            // Not failing the request, which may be handled during shutdown
+            LoggerFactory.getLogger(FileLayoutStateStore.class).warn(
+                    "The state of layout {} is not written to {}, which has"
+                            + " been closed",
+                    layoutId, file);
+            return;
+        }
+        writeScheduled = true;
+        writer.schedule(this::write, writeDelay.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void write() {
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            // Retried with the next saved state
+            LoggerFactory.getLogger(FileLayoutStateStore.class)
+                    .error(e.getMessage(), e.getCause());
+        }
+    }
+
+    private void writeFile(Properties properties) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // Replaces the file at once, so a crash leaves the previous states
+            Path temp = Files.createTempFile(directory,
+                    file.getFileName().toString(), ".tmp");
+            try (Writer out = Files.newBufferedWriter(temp,
+                    StandardCharsets.UTF_8)) {
+                properties.store(out, null);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Writing the layout states to " + file + " failed", e);
+        }
+    }
+}
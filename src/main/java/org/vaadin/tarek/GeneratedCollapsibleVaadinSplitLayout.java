@@ -16,8 +16,8 @@ import com.vaadin.flow.component.dependency.NpmPackage;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.shared.Registration;
 
-@NpmPackage(value = "@polymer/polymer", version = "3.5.1")
-@NpmPackage(value = "@polymer/iron-resizable-behavior", version = "3.0.1")
+@NpmPackage(value = "lit", version = "2.6.1")
+@NpmPackage(value = "@vaadin/component-base", version = "24.0.2")
 @JsModule("./src/collapsible-vaadin-split-layout.js")
 @JsModule("./src/collapsible-vaadin-split-layout-styles.js")
 @Tag("collapsible-vaadin-split-layout")
@@ -0,0 +1,50 @@
+package org.vaadin.tarek;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the states of the most recently used layouts in memory, evicting the
+ * least recently used state when the maximum number of entries is exceeded.
+ * The states survive navigation and new sessions, but not a restart of the
+ * server.
+ */
+public class InMemoryLayoutStateStore implements LayoutStateStore {
+
+    private final Map<String, LayoutState> states;
+
+    /**
+     * Creates a store keeping at most the given number of states.
+     *
+     * @param maxEntries
+     *            the maximum number of states, positive
+     * @throws IllegalArgumentException
+     *             if the maximum is not positive
+     */
+    public InMemoryLayoutStateStore(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException(
+                    "Max entries must be positive, was " + maxEntries);
+        }
+        states = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, LayoutState> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized LayoutState load(String layoutId) {
+        return states.get(Objects.requireNonNull(layoutId,
+                "Layout id cannot be null"));
+    }
+
+    @Override
+    public synchronized void save(String layoutId, LayoutState state) {
+        states.put(Objects.requireNonNull(layoutId, "Layout id cannot be null"),
+                Objects.requireNonNull(state, "State cannot be null"));
+    }
+}
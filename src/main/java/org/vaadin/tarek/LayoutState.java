@@ -0,0 +1,110 @@
+package org.vaadin.tarek;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import com.vaadin.flow.component.Unit;
+
+/**
+ * The splitter position and collapsed panes of a
+ * {@link CollapsibleSplitLayout}, as saved to a {@link LayoutStateStore}.
+ */
+public final class LayoutState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Double splitterPosition;
+    private final Unit splitterPositionUnit;
+    private final boolean primaryCollapsed;
+    private final boolean secondaryCollapsed;
+
+    /**
+     * Creates a layout state.
+     *
+     * @param splitterPosition
+     *            the position of the splitter, or {@code null} if it has
+     *            neither been set nor moved
+     * @param splitterPositionUnit
+     *            {@link Unit#PERCENTAGE} or {@link Unit#PIXELS}, not
+     *            {@code null}
+     * @param primaryCollapsed
+     *            whether the primary pane is collapsed
+     * @param secondaryCollapsed
+     *            whether the secondary pane is collapsed
+     */
+    public LayoutState(Double splitterPosition, Unit splitterPositionUnit,
+            boolean primaryCollapsed, boolean secondaryCollapsed) {
+        this.splitterPosition = splitterPosition;
+        this.splitterPositionUnit = Objects.requireNonNull(
+                splitterPositionUnit, "Splitter position unit cannot be null");
+        this.primaryCollapsed = primaryCollapsed;
+        this.secondaryCollapsed = secondaryCollapsed;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LayoutState)) {
+            return false;
+        }
+        LayoutState other = (LayoutState) obj;
+        return Objects.equals(splitterPosition, other.splitterPosition)
+                && splitterPositionUnit == other.splitterPositionUnit
+                && primaryCollapsed == other.primaryCollapsed
+                && secondaryCollapsed == other.secondaryCollapsed;
+    }
+
+    /**
+     * Gets the position of the splitter in the unit returned by
+     * {@link #getSplitterPositionUnit()}.
+     *
+     * @return the position of the splitter, or {@code null} if it has neither
+     *         been set nor moved
+     */
+    public Double getSplitterPosition() {
+        return splitterPosition;
+    }
+
+    /**
+     * See {@link #getSplitterPosition()}
+     *
+     * @return the unit of the splitter position, not {@code null}
+     */
+    public Unit getSplitterPositionUnit() {
+        return splitterPositionUnit;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(splitterPosition, splitterPositionUnit,
+                primaryCollapsed, secondaryCollapsed);
+    }
+
+    /**
+     * Gets whether the primary pane is collapsed.
+     *
+     * @return whether the primary pane is collapsed
+     */
+    public boolean isPrimaryCollapsed() {
+        return primaryCollapsed;
+    }
+
+    /**
+     * Gets whether the secondary pane is collapsed.
+     *
+     * @return whether the secondary pane is collapsed
+     */
+    public boolean isSecondaryCollapsed() {
+        return secondaryCollapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutState[splitterPosition=" + splitterPosition
+                + splitterPositionUnit.getSymbol() + ", primaryCollapsed="
+                + primaryCollapsed + ", secondaryCollapsed="
+                + secondaryCollapsed + "]";
+    }
+}
@@ -0,0 +1,36 @@
+package org.vaadin.tarek;
+
+/**
+ * Stores the {@link LayoutState} of layouts by their ids, so that splitter
+ * positions and collapsed panes survive navigation and new sessions, see
+ * {@link CollapsibleSplitLayout#setLayoutStateStore(LayoutStateStore)}.
+ * <p>
+ * A store is shared by the layouts of all sessions, so the methods are called
+ * concurrently, on the threads handling requests while the session is locked.
+ * They should return quickly and leave slow writes to a background thread.
+ *
+ * @see InMemoryLayoutStateStore
+ * @see FileLayoutStateStore
+ */
+public interface LayoutStateStore {
+
+    /**
+     * Loads the state saved for the layout with the given id.
+     *
+     * @param layoutId
+     *            the id of the layout, not {@code null}
+     * @return the saved state, or {@code null} if nothing has been saved
+     */
+    LayoutState load(String layoutId);
+
+    /**
+     * Saves the state of the layout with the given id, replacing the
+     * previously saved state.
+     *
+     * @param layoutId
+     *            the id of the layout, not {@code null}
+     * @param state
+     *            the state to save, not {@code null}
+     */
+    void save(String layoutId, LayoutState state);
+}
@@ -0,0 +1,120 @@
+package org.vaadin.tarek;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.function.SerializableSupplier;
+
+/**
+ * Decides what happens to the component of a collapsed pane when
+ * {@link CollapsibleSplitLayout#setDetachOnCollapse(boolean)} is enabled.
+ * <p>
+ * The component is detached from the layout before it is parked. The returned
+ * supplier is used to obtain the component again when the pane is expanded.
+ *
+ * @see CollapsibleSplitLayout#setPaneParkingStrategy(PaneParkingStrategy)
+ */
+@FunctionalInterface
+public interface PaneParkingStrategy extends Serializable {
+
+    /**
+     * Parks the given detached component.
+     *
+     * @param component
+     *            the component that was detached, never {@code null}
+     * @param factory
+     *            the supplier the pane was set with through
+     *            {@code setLazyPrimary} or {@code setLazySecondary}, or
+     *            {@code null} if the component was added directly
+     * @return a supplier restoring a component for the pane when it is
+     *         expanded, never {@code null}
+     */
+    SerializableSupplier<? extends Component> park(Component component,
+            SerializableSupplier<? extends Component> factory);
+
+    /**
+     * Keeps the detached component in memory and re-attaches the same
+     * instance on expand. This releases the client side state of the pane,
+     * while the server side component tree is retained.
+     *
+     * @return the keeping strategy
+     */
+    static PaneParkingStrategy keep() {
+        return (component, factory) -> () -> component;
+    }
+
+    /**
+     * Discards the detached component and creates a new one with the lazy
+     * component supplier on expand. Panes that were not set lazily keep their
+     * component, like with {@link #keep()}.
+     *
+     * @return the discarding strategy
+     */
+    static PaneParkingStrategy discard() {
+        return (component, factory) -> factory != null ? factory
+                : () -> component;
+    }
+
+    /**
+     * Serializes the detached component into a byte array and deserializes a
+     * copy of it on expand. Everything reachable from the component, such as
+     * listeners and data providers, must be serializable. The classes are
+     * resolved with the context class loader of the expanding thread, like
+     * when the session is deserialized, so application classes are found also
+     * when this add-on is loaded by a parent class loader.
+     *
+     * @return the serializing strategy
+     */
+    static PaneParkingStrategy serialize() {
+        return (component, factory) -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(component);
+            } catch (IOException e) {
+                throw new UncheckedIOException(
+                        "Unable to serialize the component of a collapsed pane",
+                        e);
+            }
+            byte[] data = bytes.toByteArray();
+            return () -> deserialize(data);
+        };
+    }
+
+    private static Component deserialize(byte[] data) {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(data)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass description)
+                    throws IOException, ClassNotFoundException {
+                ClassLoader loader = Thread.currentThread()
+                        .getContextClassLoader();
+                if (loader != null) {
+                    try {
+                        return Class.forName(description.getName(), false,
+                                loader);
+                    } catch (ClassNotFoundException e) {
+                        // Falls back to the default, which also resolves primitives
+                    }
+                }
+                return super.resolveClass(description);
+            }
+        }) {
+            return (Component) in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Unable to deserialize the component of an expanded pane",
+                    e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(
+                    "Unable to deserialize the component of an expanded pane",
+                    e);
+        }
+    }
+}
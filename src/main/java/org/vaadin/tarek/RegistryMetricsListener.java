@@ -0,0 +1,118 @@
+package org.vaadin.tarek;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.vaadin.tarek.CollapsibleSplitLayout.Pane;
+
+/**
+ * Records the activity of layouts as counters and timers of a metrics
+ * registry, such as Micrometer's {@code MeterRegistry}:
+ *
+ * <pre>
+ * new RegistryMetricsListener(new RegistryMetricsListener.Registry() {
+ *     public void increment(String name, String... tags) {
+ *         meterRegistry.counter(name, tags).increment();
+ *     }
+ *
+ *     public void record(String name, long millis, String... tags) {
+ *         meterRegistry.timer(name, tags).record(millis,
+ *                 TimeUnit.MILLISECONDS);
+ *     }
+ * });
+ * </pre>
+ *
+ * All metrics are tagged with the path of the current view ({@code view})
+ * and the id of the layout ({@code layout}), so the screens generating the
+ * most traffic can be identified.
+ */
+public class RegistryMetricsListener implements SplitLayoutMetricsListener {
+
+    /**
+     * The registry the metrics are recorded to. The tags are given as
+     * alternating keys and values.
+     */
+    public interface Registry extends Serializable {
+
+        /**
+         * Increments the counter with the given name and tags.
+         *
+         * @param name
+         *            the name of the counter
+         * @param tags
+         *            the tags of the counter
+         */
+        void increment(String name, String... tags);
+
+        /**
+         * Records a duration to the timer with the given name and tags.
+         *
+         * @param name
+         *            the name of the timer
+         * @param millis
+         *            the duration in milliseconds
+         * @param tags
+         *            the tags of the timer
+         */
+        void record(String name, long millis, String... tags);
+    }
+
+    public static final String CLIENT_EVENTS = "collapsible.splitlayout.client.events";
+    public static final String COLLAPSE_STATE_CHANGES = "collapsible.splitlayout.collapse.changes";
+    public static final String DRAG_END_LATENCY = "collapsible.splitlayout.dragend.latency";
+    public static final String ELEMENT_UPDATES = "collapsible.splitlayout.element.updates";
+
+    private static final long serialVersionUID = 1L;
+
+    private final Registry registry;
+
+    /**
+     * Creates a listener recording to the given registry.
+     *
+     * @param registry
+     *            the registry to record to, not {@code null}
+     */
+    public RegistryMetricsListener(Registry registry) {
+        this.registry = Objects.requireNonNull(registry,
+                "Registry cannot be null");
+    }
+
+    private static String[] getTags(CollapsibleSplitLayout layout,
+            String... tags) {
+        String[] allTags = new String[tags.length + 4];
+        allTags[0] = "view";
+        allTags[1] = layout.getUI()
+                .map(ui -> ui.getInternals().getActiveViewLocation().getPath())
+                .orElse("");
+        allTags[2] = "layout";
+        allTags[3] = layout.getId().orElse("");
+        System.arraycopy(tags, 0, allTags, 4, tags.length);
+        return allTags;
+    }
+
+    @Override
+    public void onClientEvent(CollapsibleSplitLayout layout,
+            String eventName) {
+        registry.increment(CLIENT_EVENTS,
+                getTags(layout, "event", eventName));
+    }
+
+    @Override
+    public void onCollapseStateChanged(CollapsibleSplitLayout layout,
+            Pane pane, boolean collapsed, boolean fromClient) {
+        registry.increment(COLLAPSE_STATE_CHANGES,
+                getTags(layout, "pane", pane.name().toLowerCase(), "action",
+                        collapsed ? "collapse" : "expand", "origin",
+                        fromClient ? "client" : "server"));
+    }
+
+    @Override
+    public void onDragEnd(CollapsibleSplitLayout layout, long latencyMillis) {
+        registry.record(DRAG_END_LATENCY, latencyMillis, getTags(layout));
+    }
+
+    @Override
+    public void onElementUpdate(CollapsibleSplitLayout layout, String name) {
+        registry.increment(ELEMENT_UPDATES, getTags(layout, "name", name));
+    }
+}
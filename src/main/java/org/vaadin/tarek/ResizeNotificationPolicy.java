@@ -0,0 +1,44 @@
+package org.vaadin.tarek;
+
+/**
+ * Defines when a {@link CollapsibleSplitLayout} notifies its nested resizable
+ * elements with {@code iron-resize} while the splitter is dragged. Except with
+ * {@link #NONE}, they are also notified when dragging ends and when a
+ * component is collapsed or expanded.
+ *
+ * @see CollapsibleSplitLayout#setResizeNotificationPolicy(ResizeNotificationPolicy)
+ */
+public enum ResizeNotificationPolicy {
+    /**
+     * Notify on every frame while dragging.
+     */
+    LIVE("live"),
+    /**
+     * Notify at most once per throttle timeout while dragging, see
+     * {@link CollapsibleSplitLayout#setResizeNotificationThrottle(int)}.
+     */
+    THROTTLED("throttled"),
+    /**
+     * Notify only when dragging ends.
+     */
+    ON_DRAG_END("on-drag-end"),
+    /**
+     * Never notify.
+     */
+    NONE("none");
+
+    private final String policy;
+
+    ResizeNotificationPolicy(String policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Gets the policy name used by the web component.
+     *
+     * @return policy name
+     */
+    public String getPolicyName() {
+        return policy;
+    }
+}
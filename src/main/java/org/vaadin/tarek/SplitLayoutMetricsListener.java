@@ -0,0 +1,77 @@
+package org.vaadin.tarek;
+
+import java.io.Serializable;
+
+import org.vaadin.tarek.CollapsibleSplitLayout.Pane;
+
+/**
+ * Receives the activity of a {@link CollapsibleSplitLayout} for collecting
+ * metrics, see {@link CollapsibleSplitLayout#setMetricsListener}. All methods
+ * do nothing by default, so implementations only override what they record.
+ * <p>
+ * The methods are called on the thread handling the request, while the
+ * session is locked, so they should return quickly.
+ *
+ * @see RegistryMetricsListener
+ */
+public interface SplitLayoutMetricsListener extends Serializable {
+
+    /**
+     * Called when an event from the client has been received by the layout.
+     *
+     * @param layout
+     *            the layout, not {@code null}
+     * @param eventName
+     *            the name of the DOM event, e.g.
+     *            {@code splitter-position-changed}
+     */
+    default void onClientEvent(CollapsibleSplitLayout layout,
+            String eventName) {
+    }
+
+    /**
+     * Called when a pane has been collapsed or expanded.
+     *
+     * @param layout
+     *            the layout, not {@code null}
+     * @param pane
+     *            the collapsed or expanded pane, not {@code null}
+     * @param collapsed
+     *            {@code true} if the pane was collapsed, {@code false} if it
+     *            was expanded
+     * @param fromClient
+     *            {@code true} if the user changed the collapsed state
+     */
+    default void onCollapseStateChanged(CollapsibleSplitLayout layout,
+            Pane pane, boolean collapsed, boolean fromClient) {
+    }
+
+    /**
+     * Called with the latency of the previous drag end of the layout, when
+     * the user has stopped dragging the splitter again.
+     * <p>
+     * The latency is the round trip from the end of the drag in the browser
+     * until the acknowledgement of the server has been applied, measured with
+     * the clock of the browser. It is sent with the next drag end, so the last
+     * drag of a layout is not reported.
+     *
+     * @param layout
+     *            the layout, not {@code null}
+     * @param latencyMillis
+     *            the round trip in milliseconds, not negative
+     */
+    default void onDragEnd(CollapsibleSplitLayout layout, long latencyMillis) {
+    }
+
+    /**
+     * Called when the layout has updated a property, an attribute or the
+     * children of its element, each of which is sent to the client.
+     *
+     * @param layout
+     *            the layout, not {@code null}
+     * @param name
+     *            the name of the property or attribute, or {@code children}
+     */
+    default void onElementUpdate(CollapsibleSplitLayout layout, String name) {
+    }
+}
@@ -0,0 +1,230 @@
+package org.vaadin.tarek;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.vaadin.flow.component.Unit;
+
+/**
+ * A group of {@link CollapsibleSplitLayout}s sharing one splitter position
+ * and collapsed state. Dragging the splitter or collapsing a pane of one
+ * layout is mirrored to the other layouts of the group in the browser, without
+ * a round trip:
+ *
+ * <pre>
+ * SplitterGroup.link(firstTile, secondTile, thirdTile);
+ * </pre>
+ *
+ * The server side state of the mirrored layouts is synchronized once when the
+ * drag ends. Only the dragged layout fires a
+ * {@link CollapsibleSplitLayout.SplitterPositionChangedEvent}, which is
+ * debounced, see
+ * {@link CollapsibleSplitLayout#setSplitterPositionChangedDebounce(int)}, so
+ * it may arrive in a later request than the state of the mirrored layouts.
+ * Changing the collapsed state of a linked layout on the server is also
+ * mirrored to the other layouts by the browser.
+ * <p>
+ * A layout belongs to at most one group. The layouts are mirrored while they
+ * are attached, so the group can be created before the layouts are added to a
+ * view. The group does not keep detached layouts, so it does not prevent them
+ * from being garbage collected. A detached layout still remembers its group:
+ * it is tracked again when it is attached, unless the group was unlinked in
+ * the meantime, and a position set on the group while it was detached is
+ * applied to it when it is attached.
+ */
+public class SplitterGroup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name = UUID.randomUUID().toString();
+    // Only the attached members, the membership is kept by the layouts
+    private final List<CollapsibleSplitLayout> attached = new ArrayList<>();
+    // Incremented by unlink(), outdating the memberships of detached layouts
+    private int generation;
+    // Incremented whenever the position of the group changes
+    private int positionVersion;
+    private Double position;
+    private Unit unit;
+
+    /*
+     * The membership of a layout in a group, kept by the layout so that the
+     * group does not have to reference detached layouts.
+     */
+    static class Membership implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SplitterGroup group;
+        private final int generation;
+        private int positionVersion;
+
+        private Membership(SplitterGroup group) {
+            this.group = group;
+            this.generation = group.generation;
+            this.positionVersion = group.positionVersion;
+        }
+
+        SplitterGroup getGroup() {
+            return group;
+        }
+
+        boolean isCurrent() {
+            return generation == group.generation;
+        }
+    }
+
+    /**
+     * Creates an empty group, see {@link #link(CollapsibleSplitLayout...)}.
+     */
+    public SplitterGroup() {
+    }
+
+    /**
+     * Adds the given layout to this group, removing it from its previous
+     * group. The layout keeps its splitter position until one of the layouts
+     * of the group is changed.
+     *
+     * @param layout
+     *            the layout to add, not {@code null}
+     */
+    public void add(CollapsibleSplitLayout layout) {
+        Objects.requireNonNull(layout, "Layout cannot be null");
+        if (layout.getSplitterGroup() == this) {
+            return;
+        }
+        if (layout.getSplitterGroup() != null) {
+            layout.getSplitterGroup().remove(layout);
+        }
+        layout.setSplitterGroupMembership(new Membership(this));
+        if (layout.isAttached()) {
+            attached.add(layout);
+        }
+    }
+
+    /**
+     * Gets the attached layouts of this group. Detached layouts are not kept
+     * by the group, see {@link SplitterGroup}.
+     *
+     * @return an unmodifiable list of the attached layouts, in the order they
+     *         were attached
+     */
+    public List<CollapsibleSplitLayout> getLayouts() {
+        return Collections.unmodifiableList(attached);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Creates a group of the given layouts.
+     *
+     * @param layouts
+     *            the layouts to link, not {@code null}
+     * @return the group of the layouts
+     */
+    public static SplitterGroup link(CollapsibleSplitLayout... layouts) {
+        Objects.requireNonNull(layouts, "Layouts cannot be null");
+        SplitterGroup group = new SplitterGroup();
+        for (CollapsibleSplitLayout layout : layouts) {
+            group.add(layout);
+        }
+        return group;
+    }
+
+    private void markPositionApplied(CollapsibleSplitLayout layout) {
+        layout.getSplitterGroupMembership().positionVersion = positionVersion;
+    }
+
+    void onLayoutAttached(CollapsibleSplitLayout layout) {
+        Membership membership = layout.getSplitterGroupMembership();
+        if (!membership.isCurrent()) {
+            // Unlinked while the layout was detached
+            layout.setSplitterGroupMembership(null);
+            return;
+        }
+        if (membership.positionVersion != positionVersion) {
+            layout.setSplitterPosition(position, unit);
+            markPositionApplied(layout);
+        }
+        if (!attached.contains(layout)) {
+            attached.add(layout);
+        }
+    }
+
+    void onLayoutDetached(CollapsibleSplitLayout layout) {
+        attached.remove(layout);
+    }
+
+    /**
+     * Removes the given layout from this group. The layout keeps its current
+     * splitter position and collapsed state.
+     *
+     * @param layout
+     *            the layout to remove, not {@code null}
+     */
+    public void remove(CollapsibleSplitLayout layout) {
+        Objects.requireNonNull(layout, "Layout cannot be null");
+        if (layout.getSplitterGroup() == this) {
+            attached.remove(layout);
+            layout.setSplitterGroupMembership(null);
+        }
+    }
+
+    /**
+     * Sets the splitter position of all the layouts of this group, see
+     * {@link CollapsibleSplitLayout#setSplitterPosition(double, Unit)}.
+     * Detached layouts get the position when they are attached.
+     *
+     * @param position
+     *            the position of the splitter
+     * @param unit
+     *            {@link Unit#PERCENTAGE} or {@link Unit#PIXELS}, not
+     *            {@code null}
+     */
+    public void setSplitterPosition(double position, Unit unit) {
+        Objects.requireNonNull(unit, "Unit cannot be null");
+        if (unit != Unit.PERCENTAGE && unit != Unit.PIXELS) {
+            throw new IllegalArgumentException(
+                    "Only percentage and pixel units are supported");
+        }
+        this.position = position;
+        this.unit = unit;
+        positionVersion++;
+        for (CollapsibleSplitLayout layout : attached) {
+            layout.setSplitterPosition(position, unit);
+            markPositionApplied(layout);
+        }
+    }
+
+    /*
+     * Called once when a layout of the group was dragged in the browser,
+     * which has already mirrored the position to the other layouts.
+     */
+    void synchronizeSplitterPosition(CollapsibleSplitLayout source) {
+        if (source.getSplitterPosition() == null) {
+            return;
+        }
+        position = source.getSplitterPosition();
+        unit = source.getSplitterPositionUnit();
+        positionVersion++;
+        for (CollapsibleSplitLayout layout : attached) {
+            markPositionApplied(layout);
+            layout.setSplitterPositionFromGroup(position, unit);
+        }
+    }
+
+    /**
+     * Removes all the layouts from this group, including the layouts that
+     * are detached at the time: they are no longer part of the group when
+     * they are attached again.
+     */
+    public void unlink() {
+        new ArrayList<>(attached).forEach(this::remove);
+        generation++;
+    }
+}
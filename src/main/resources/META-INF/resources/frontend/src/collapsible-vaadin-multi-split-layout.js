@@ -0,0 +1,610 @@
+/**
+@license
+Copyright (c) 2016 Vaadin Ltd.
+This program is available under Apache License Version 2.0, available at https://vaadin.com/license/
+*/
+import { LitElement, html, css } from 'lit';
+
+import { ThemableMixin } from '@vaadin/vaadin-themable-mixin/vaadin-themable-mixin.js';
+import { ElementMixin } from '@vaadin/component-base/src/element-mixin.js';
+import { PolylitMixin } from '@vaadin/component-base/src/polylit-mixin.js';
+// Theme styles must be registered before the element class is finalized
+import './collapsible-vaadin-multi-split-layout-styles.js';
+
+// Distance in pixels the pointer has to move before a drag starts, so that
+// clicking the toggles inside the splitter does not resize the content.
+const DRAG_THRESHOLD = 5;
+
+/**
+ * `<collapsible-vaadin-multi-split-layout>` is a Web Component implementing a split layout for
+ * any number of content elements, with a draggable splitter between each two of them.
+ *
+ * ```html
+ * <collapsible-vaadin-multi-split-layout>
+ *   <div>First content element</div>
+ *   <div>Second content element</div>
+ *   <div>Third content element</div>
+ * </collapsible-vaadin-multi-split-layout>
+ * ```
+ *
+ * It replaces nesting `<collapsible-vaadin-split-layout>` elements inside each other
+ * when more than two content elements are needed. The `orientation` property works like
+ * in `<collapsible-vaadin-split-layout>`.
+ *
+ * ### Pane Sizes
+ *
+ * The `paneSizes` property sets the relative sizes of the content elements, in the
+ * order of the elements. The values are scaled so that they add up to 100 percent,
+ * and elements without a value get an equal share:
+ *
+ * ```html
+ * <collapsible-vaadin-multi-split-layout pane-sizes="[20, 60, 20]">
+ *   <div>Navigation</div>
+ *   <div>Editor</div>
+ *   <div>Properties</div>
+ * </collapsible-vaadin-multi-split-layout>
+ * ```
+ *
+ * Otherwise, the sizes of the content elements are determined from their own sizes.
+ * `paneSizes` is updated when the user stops dragging a splitter.
+ *
+ * ### Collapsing
+ *
+ * The content elements whose index is `true` in `collapsiblePanes` can be collapsed
+ * with the toggles of the adjacent splitters, or by dragging a splitter to the edge
+ * of the element. `collapsedPanes` holds the collapsed state of each element.
+ *
+ * ### Resize Notification
+ *
+ * Unlike `<collapsible-vaadin-split-layout>`, this element does not fire `iron-resize`.
+ * The content elements are expected to observe their own size, like `<vaadin-grid>` does.
+ *
+ * ### Styling
+ *
+ * The following shadow DOM parts are available for styling:
+ *
+ * Part name | Description | Theme for Element
+ * ----------------|----------------|----------------
+ * `splitter` | Split element | collapsible-vaadin-multi-split-layout
+ * `handle` | The handle of the splitter | collapsible-vaadin-multi-split-layout
+ * `toggle` | The toggles of a splitter next to a collapsible element | collapsible-vaadin-multi-split-layout
+ * `toggle-left` | Collapses the element before the splitter, or expands the one after it | collapsible-vaadin-multi-split-layout
+ * `toggle-right` | Collapses the element after the splitter, or expands the one before it | collapsible-vaadin-multi-split-layout
+ *
+ * See [ThemableMixin – how to apply styles for shadow parts](https://github.com/vaadin/vaadin-themable-mixin/wiki)
+ *
+ * @extends LitElement
+ * @mixes PolylitMixin
+ * @mixes ThemableMixin
+ * @mixes ElementMixin
+ */
+class CollapsibleMultiSplitLayoutElement extends ElementMixin(ThemableMixin(PolylitMixin(LitElement))) {
+	static get styles() {
+		return css`
+      :host {
+        display: flex;
+        overflow: hidden !important;
+        transform: translateZ(0);
+      }
+
+      :host([hidden]) {
+        display: none !important;
+      }
+
+      :host([orientation="vertical"]) {
+        flex-direction: column;
+      }
+
+      :host ::slotted(*) {
+        flex: 1 1 auto;
+        overflow: auto;
+        -webkit-overflow-scrolling: touch;
+      }
+
+      [part="splitter"] {
+        flex: none;
+        position: relative;
+        z-index: 1;
+        overflow: visible;
+        min-width: 8px;
+        min-height: 8px;
+        touch-action: none;
+      }
+
+      :host(:not([orientation="vertical"])) > [part="splitter"] {
+        cursor: ew-resize;
+      }
+
+      :host([orientation="vertical"]) > [part="splitter"] {
+        cursor: ns-resize;
+      }
+
+      [part="handle"],
+      [part="toggle"] {
+        position: absolute;
+        top: 50%;
+        left: 50%;
+        transform: translate3d(-50%, -50%, 0);
+      }
+
+      [part="handle"] {
+        width: 40px;
+        height: 40px;
+      }
+
+      [part="toggle"],
+      [part="splitter"][collapsible] > [part="handle"] {
+        display: none;
+      }
+
+      [part="splitter"][collapsible] > [part="toggle"] {
+        display: block;
+      }
+
+      [part="toggle"] > [hidden] {
+        display: none !important;
+      }
+    `;
+	}
+
+	render() {
+		const content = [];
+		this._panes.forEach((pane, index) => {
+			content.push(html`<slot name="pane-${index}" @slotchange="${this._processChildren}"></slot>`);
+			if (index < this._panes.length - 1) {
+				content.push(this._renderSplitter(index));
+			}
+		});
+		return html`
+    ${content}
+
+    <div hidden="">
+      <!-- Children without a slot are assigned to the pane slots in _processChildren -->
+      <slot @slotchange="${this._processChildren}"></slot>
+    </div>
+`;
+	}
+
+	_renderSplitter(index) {
+		const beforeCollapsed = this._isPaneCollapsed(index);
+		const afterCollapsed = this._isPaneCollapsed(index + 1);
+		const beforeCollapsible = this._isPaneCollapsible(index);
+		const afterCollapsible = this._isPaneCollapsible(index + 1);
+		return html`
+    <div part="splitter" ?collapsible="${beforeCollapsible || afterCollapsible}"
+        @pointerdown="${(e) => this._onPointerDown(e, index)}"
+        @pointermove="${this._pointerMoveListener}" @pointerup="${this._pointerUpListener}"
+        @pointercancel="${this._pointerUpListener}" @lostpointercapture="${this._pointerUpListener}"
+        @pointerleave="${this._pointerLeaveListener}">
+      <div part="handle"></div>
+      <div part="toggle">
+        <div part="toggle-left" ?hidden="${!afterCollapsed && (!beforeCollapsible || beforeCollapsed)}"
+            @click="${() => this._onToggleLeft(index)}"></div>
+        <div part="toggle-right" ?hidden="${!beforeCollapsed && (!afterCollapsible || afterCollapsed)}"
+            @click="${() => this._onToggleRight(index)}"></div>
+      </div>
+    </div>`;
+	}
+
+	static get is() {
+		return 'collapsible-vaadin-multi-split-layout';
+	}
+
+	static get version() {
+		return '2.0.0';
+	}
+
+	static get properties() {
+		return {
+			/**
+			 * The split layout's orientation. Possible values are: `horizontal|vertical`.
+			 */
+			orientation: {
+				type: String,
+				reflectToAttribute: true,
+				value: 'horizontal'
+			},
+			/**
+			 * The relative sizes of the content elements, in their order. Scaled so that
+			 * they add up to 100 percent. When not set, the sizes are determined from the
+			 * content elements. Updated when the user stops dragging a splitter.
+			 */
+			paneSizes: {
+				type: Array,
+				attribute: 'pane-sizes'
+			},
+			/**
+			 * Whether each content element, in their order, can be collapsed by the user.
+			 */
+			collapsiblePanes: {
+				type: Array,
+				attribute: 'collapsible-panes',
+				value: () => []
+			},
+			/**
+			 * Whether each content element, in their order, is collapsed.
+			 */
+			collapsedPanes: {
+				type: Array,
+				attribute: 'collapsed-panes',
+				value: () => []
+			}
+		};
+	}
+
+	constructor() {
+		super();
+		this._panes = [];
+
+		// The pressed splitter captures the pointer, like in the split layout
+		this._pointerMoveListener = { handleEvent: (e) => this._onPointerMove(e), passive: true };
+		this._pointerUpListener = { handleEvent: (e) => this._onPointerUp(e), passive: true };
+		this._pointerLeaveListener = { handleEvent: (e) => this._onPointerLeave(e), passive: true };
+	}
+
+	disconnectedCallback() {
+		super.disconnectedCallback();
+		this._endDrag();
+		if (this._dragFrame) {
+			cancelAnimationFrame(this._dragFrame);
+			this._dragFrame = null;
+		}
+	}
+
+	updated(props) {
+		super.updated(props);
+		if (props.has('collapsedPanes')) {
+			this._updateCollapsedPanes();
+		}
+		if (props.has('paneSizes') || props.has('orientation')) {
+			this._applyPaneSizes();
+		}
+	}
+
+	firstUpdated() {
+		this._processChildren();
+	}
+
+	_isPaneCollapsed(index) {
+		return !!(this.collapsedPanes && this.collapsedPanes[index]);
+	}
+
+	_isPaneCollapsible(index) {
+		return !!(this.collapsiblePanes && this.collapsiblePanes[index]);
+	}
+
+	_sizeProperty() {
+		return this.orientation === 'vertical' ? 'height' : 'width';
+	}
+
+	_processChildren() {
+		const panes = Array.from(this.children);
+		panes.forEach((child, index) => {
+			const slot = 'pane-' + index;
+			if (child.getAttribute('slot') !== slot) {
+				child.setAttribute('slot', slot);
+			}
+		});
+
+		if (panes.length !== this._panes.length || panes.some((pane, index) => pane !== this._panes[index])) {
+			this._panes.filter((pane) => panes.indexOf(pane) < 0).forEach((pane) => {
+				// Removed elements are not left hidden
+				if (pane.style.display === 'none') {
+					pane.style.display = '';
+				}
+			});
+			// Renders a slot for each content element and the splitters between them
+			this._panes = panes;
+			this.requestUpdate();
+		}
+		this._updateCollapsedPanes();
+		this._applyPaneSizes();
+	}
+
+	_updateCollapsedPanes() {
+		this._panes.forEach((pane, index) => {
+			if (this._isPaneCollapsed(index)) {
+				pane.style.display = 'none';
+			} else if (pane.style.display === 'none') {
+				pane.style.display = '';
+			}
+		});
+	}
+
+	_setPaneCollapsed(index, collapsed) {
+		if (this._isPaneCollapsed(index) === collapsed) {
+			return;
+		}
+		const collapsedPanes = this._panes.map((pane, i) => (i === index ? collapsed : this._isPaneCollapsed(i)));
+		this.collapsedPanes = collapsedPanes;
+		// Applied right away, so that the content elements can be measured after this
+		this._updateCollapsedPanes();
+		this.dispatchEvent(new CustomEvent('collapsed-panes-changed', { detail: { value: collapsedPanes } }));
+	}
+
+	_expandPane(index) {
+		this._setPaneCollapsed(index, false);
+		if (this._panes[index].getBoundingClientRect()[this._sizeProperty()] < 1) {
+			// The element was collapsed by dragging, give it an equal share back
+			const shares = this._measurePaneShares();
+			shares[index] = 100 / this._panes.length;
+			this._setPaneSizes(shares);
+		}
+	}
+
+	_onToggleLeft(index) {
+		if (this._suppressClick) {
+			return;
+		}
+		if (this._isPaneCollapsed(index + 1)) {
+			this._expandPane(index + 1);
+		} else {
+			this._setPaneCollapsed(index, true);
+		}
+	}
+
+	_onToggleRight(index) {
+		if (this._suppressClick) {
+			return;
+		}
+		if (this._isPaneCollapsed(index)) {
+			this._expandPane(index);
+		} else {
+			this._setPaneCollapsed(index + 1, true);
+		}
+	}
+
+	/*
+	 * The shares of the content elements in percentages, from paneSizes. Elements
+	 * without a size get an equal share.
+	 */
+	_getPaneShares() {
+		const count = this._panes.length;
+		const sizes = this._panes.map((pane, index) => {
+			const size = this.paneSizes ? this.paneSizes[index] : undefined;
+			return typeof size === 'number' && size >= 0 ? size : 100 / count;
+		});
+		const total = sizes.reduce((sum, size) => sum + size, 0);
+		return sizes.map((size) => (total > 0 ? size / total * 100 : 100 / count));
+	}
+
+	/*
+	 * The shares of the content elements in percentages, measured from the visible
+	 * elements. Collapsed elements keep their previous share, so that they are
+	 * restored to it when expanded.
+	 */
+	_measurePaneShares() {
+		const size = this._sizeProperty();
+		const previous = this._getPaneShares();
+		const sizes = this._panes.map((pane, index) => (this._isPaneCollapsed(index) ? 0 : pane.getBoundingClientRect()[size]));
+		const visibleTotal = sizes.reduce((sum, paneSize) => sum + paneSize, 0);
+		const collapsedShare = previous.reduce((sum, share, index) => (this._isPaneCollapsed(index) ? sum + share : sum), 0);
+		return sizes.map((paneSize, index) => {
+			if (this._isPaneCollapsed(index)) {
+				return previous[index];
+			}
+			return visibleTotal > 0 ? paneSize / visibleTotal * (100 - collapsedShare) : 0;
+		});
+	}
+
+	_setPaneSizes(paneSizes) {
+		const total = paneSizes.reduce((sum, size) => sum + size, 0);
+		this.paneSizes = paneSizes.map((size) => (total > 0 ? size / total * 100 : 100 / paneSizes.length));
+		this.dispatchEvent(new CustomEvent('pane-sizes-changed', { detail: { value: this.paneSizes } }));
+	}
+
+	_applyPaneSizes() {
+		if (!this.paneSizes || this._panes.length === 0) {
+			return;
+		}
+		const size = this._sizeProperty();
+		const previousSize = this._paneSizesSize;
+		const shares = this._getPaneShares();
+		this._panes.forEach((pane, index) => {
+			pane.style.flex = '';
+			pane.style[size] = shares[index] + '%';
+			if (previousSize && previousSize !== size) {
+				pane.style[previousSize] = '';
+			}
+		});
+		this._paneSizesSize = size;
+	}
+
+	_setFlexBasis(element, flexBasis, containerSize) {
+		flexBasis = Math.max(0, Math.min(flexBasis, containerSize));
+		if (flexBasis === 0) {
+			// Pure zero does not play well in Safari
+			flexBasis = 0.000001;
+		}
+		element.style.flex = '1 1 ' + flexBasis + 'px';
+	}
+
+	_onPointerDown(event, index) {
+		if (!event.isPrimary || event.button !== 0 || this._pointer) {
+			return;
+		}
+		const onToggle = event.composedPath().some((node) => node.part
+			&& (node.part.contains('toggle-left') || node.part.contains('toggle-right')));
+		this._pointer = {
+			id: event.pointerId,
+			x: event.clientX,
+			y: event.clientY,
+			index: index,
+			splitter: event.currentTarget,
+			dragging: false
+		};
+		this._suppressClick = false;
+		// Like in the split layout, a pressed toggle is captured only once the
+		// pointer is dragged or leaves the splitter, so the toggle gets the click
+		if (!onToggle) {
+			this._capturePointer();
+		}
+		// Prevents text selection while dragging
+		event.preventDefault();
+	}
+
+	_capturePointer() {
+		const { id, splitter } = this._pointer;
+		if (!splitter.hasPointerCapture(id)) {
+			splitter.setPointerCapture(id);
+		}
+	}
+
+	_onPointerLeave(event) {
+		if (this._pointer && event.pointerId === this._pointer.id) {
+			this._capturePointer();
+		}
+	}
+
+	_onPointerMove(event) {
+		if (!this._pointer || event.pointerId !== this._pointer.id) {
+			return;
+		}
+		const dx = event.clientX - this._pointer.x;
+		const dy = event.clientY - this._pointer.y;
+		if (!this._pointer.dragging) {
+			if (Math.abs(dx) <= DRAG_THRESHOLD && Math.abs(dy) <= DRAG_THRESHOLD) {
+				return;
+			}
+			this._pointer.dragging = true;
+			this._capturePointer();
+			this._onDragStart(this._pointer.index);
+		}
+		this._onDragMove(dx, dy);
+	}
+
+	_onPointerUp(event) {
+		if (!this._pointer || event.pointerId !== this._pointer.id) {
+			return;
+		}
+		const pointer = this._pointer;
+		this._endDrag();
+		if (pointer.dragging) {
+			// A drag started on a toggle does not toggle it when released
+			this._suppressClick = true;
+			setTimeout(() => {
+				this._suppressClick = false;
+			});
+			this._onDragEnd(event.clientX - pointer.x, event.clientY - pointer.y);
+		}
+	}
+
+	_endDrag() {
+		if (!this._pointer) {
+			return;
+		}
+		const { id, splitter } = this._pointer;
+		this._pointer = null;
+		if (splitter.hasPointerCapture(id)) {
+			splitter.releasePointerCapture(id);
+		}
+	}
+
+	_onDragStart(index) {
+		const before = this._panes[index];
+		const after = this._panes[index + 1];
+		if (!before || !after) {
+			return;
+		}
+		// Dragging a splitter expands the content elements next to it
+		this._setPaneCollapsed(index, false);
+		this._setPaneCollapsed(index + 1, false);
+
+		const size = this._sizeProperty();
+		// All measurements are taken once, before any style is written, so that
+		// moving the splitter never forces a synchronous layout.
+		const sizes = this._panes.map((pane, i) => (this._isPaneCollapsed(i) ? 0 : pane.getBoundingClientRect()[size]));
+		this._startSize = {
+			index: index,
+			before: sizes[index],
+			after: sizes[index + 1],
+			rtl: this.orientation !== 'vertical' && this.getAttribute('dir') === 'rtl'
+		};
+		// The other content elements are pinned to their pixel size too, so that
+		// all elements are sized in the same unit while dragging
+		const total = sizes.reduce((sum, paneSize) => sum + paneSize, 0);
+		this._panes.forEach((pane, i) => {
+			if (i !== index && i !== index + 1 && !this._isPaneCollapsed(i)) {
+				this._setFlexBasis(pane, sizes[i], total);
+			}
+		});
+	}
+
+	_onDragMove(dx, dy) {
+		if (!this._startSize) {
+			return;
+		}
+		const distance = this.orientation === 'vertical' ? dy : dx;
+		this._dragDistance = this._startSize.rtl ? -distance : distance;
+
+		if (!this._dragFrame) {
+			// Pointer moves are coalesced into a single style write per frame
+			this._dragFrame = requestAnimationFrame(() => {
+				this._dragFrame = null;
+				this._applyDragDistance();
+			});
+		}
+	}
+
+	_onDragEnd(dx, dy) {
+		if (!this._startSize) {
+			return;
+		}
+		const index = this._startSize.index;
+		const distance = this.orientation === 'vertical' ? dy : dx;
+		this._dragDistance = this._startSize.rtl ? -distance : distance;
+
+		if (this._dragFrame) {
+			cancelAnimationFrame(this._dragFrame);
+			this._dragFrame = null;
+		}
+		this._applyDragDistance();
+
+		const size = this._sizeProperty();
+		if (this._isPaneCollapsible(index) && this._panes[index].getBoundingClientRect()[size] < 1) {
+			this._setPaneCollapsed(index, true);
+		} else if (this._isPaneCollapsible(index + 1) && this._panes[index + 1].getBoundingClientRect()[size] < 1) {
+			this._setPaneCollapsed(index + 1, true);
+		}
+		// Converts the pixel sizes set while dragging to percentages, for all
+		// content elements in this frame instead of in the next update
+		this._setPaneSizes(this._measurePaneShares());
+		this._applyPaneSizes();
+
+		this.dispatchEvent(new CustomEvent('splitter-dragend', { detail: { splitterIndex: index } }));
+
+		delete this._startSize;
+	}
+
+	_applyDragDistance() {
+		if (!this._startSize) {
+			return;
+		}
+		const total = this._startSize.before + this._startSize.after;
+		this._setFlexBasis(this._panes[this._startSize.index], this._startSize.before + this._dragDistance, total);
+		this._setFlexBasis(this._panes[this._startSize.index + 1], this._startSize.after - this._dragDistance, total);
+	}
+
+	/**
+	 * Fired after dragging a splitter has ended. `event.detail.splitterIndex` is the
+	 * index of the splitter, the splitter after the first content element being 0.
+	 *
+	 * @event splitter-dragend
+	 */
+
+	/**
+	 * Fired when the user has changed `paneSizes`.
+	 *
+	 * @event pane-sizes-changed
+	 */
+
+	/**
+	 * Fired when the user has changed `collapsedPanes`.
+	 *
+	 * @event collapsed-panes-changed
+	 */
+}
+
+customElements.define(CollapsibleMultiSplitLayoutElement.is, CollapsibleMultiSplitLayoutElement);
+
+export { CollapsibleMultiSplitLayoutElement };
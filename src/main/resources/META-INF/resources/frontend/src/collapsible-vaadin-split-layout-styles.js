@@ -2,11 +2,11 @@ import '@vaadin/vaadin-lumo-styles/color.js';
 import '@vaadin/vaadin-lumo-styles/sizing.js';
 import '@vaadin/vaadin-lumo-styles/spacing.js';
 import '@vaadin/vaadin-lumo-styles/style.js';
-import { html } from '@polymer/polymer/lib/utils/html-tag.js';
+import { css, registerStyles } from '@vaadin/vaadin-themable-mixin/vaadin-themable-mixin.js';
 
-const $_documentContainer = html`<dom-module id="lumo-collapsible-split-layout" theme-for="collapsible-vaadin-split-layout">
-  <template>
-    <style>
+registerStyles(
+  'collapsible-vaadin-split-layout',
+  css`
       [part="splitter"] {
         min-width: var(--lumo-space-s);
         min-height: var(--lumo-space-s);
@@ -58,6 +58,12 @@ const $_documentContainer = html`<dom-module id="lumo-collapsible-split-layout"
         background-color: var(--lumo-contrast-50pct);
       }
 
+      /* Deferred resize preview */
+
+      [part="ghost"] {
+        background-color: var(--lumo-primary-color-50pct);
+      }
+
       /* Small/minimal */
 
       :host([theme~="small"]) > [part="splitter"] {
@@ -157,8 +163,6 @@ const $_documentContainer = html`<dom-module id="lumo-collapsible-split-layout"
 		display: none;
 	}
       
-    </style>
-  </template>
-</dom-module>`;
-
-document.head.appendChild($_documentContainer.content);
+  `,
+  { moduleId: 'lumo-collapsible-split-layout' }
+);
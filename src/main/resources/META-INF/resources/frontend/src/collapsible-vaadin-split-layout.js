@@ -3,15 +3,21 @@
 Copyright (c) 2016 Vaadin Ltd.
 This program is available under Apache License Version 2.0, available at https://vaadin.com/license/
 */
-import { PolymerElement } from '@polymer/polymer/polymer-element.js';
+import { LitElement, html, css } from 'lit';
 
-import { GestureEventListeners } from '@polymer/polymer/lib/mixins/gesture-event-listeners.js';
-import { FlattenedNodesObserver } from '@polymer/polymer/lib/utils/flattened-nodes-observer.js';
-import { IronResizableBehavior } from '@polymer/iron-resizable-behavior/iron-resizable-behavior.js';
 import { ThemableMixin } from '@vaadin/vaadin-themable-mixin/vaadin-themable-mixin.js';
 import { ElementMixin } from '@vaadin/component-base/src/element-mixin.js';
-import { html } from '@polymer/polymer/lib/utils/html-tag.js';
-import { mixinBehaviors } from '@polymer/polymer/lib/legacy/class.js';
+import { PolylitMixin } from '@vaadin/component-base/src/polylit-mixin.js';
+// Theme styles must be registered before the element class is finalized
+import './collapsible-vaadin-split-layout-styles.js';
+
+// Distance in pixels the pointer has to move before a drag starts, so that
+// clicking the toggles inside the splitter does not resize the content.
+const DRAG_THRESHOLD = 5;
+
+// The connected elements of each splitter group, by the name of the group
+const splitterGroups = new Map();
+
 /**
  * `<collapsible-vaadin-split-layout>` is a Web Component implementing a split layout for two
  * content elements with a draggable splitter between them.
@@ -103,10 +109,20 @@ import { mixinBehaviors } from '@polymer/polymer/lib/legacy/class.js';
  *
  * ### Initial Splitter Position
  *
- * The initial splitter position is determined from the sizes of the content elements
- * inside the split layout. Therefore, changing `width` on the content elements
- * affects the initial splitter position for the horizontal layouts, while `height`
- * affects the vertical ones.
+ * The initial splitter position can be set with the `splitterPosition` property,
+ * which is the share of the primary content element in percentages:
+ *
+ * ```html
+ * <collapsible-vaadin-split-layout splitter-position="75">
+ *   <div>Three fourths</div>
+ *   <div>One fourth</div>
+ * </collapsible-vaadin-split-layout>
+ * ```
+ *
+ * Otherwise, the initial splitter position is determined from the sizes of the
+ * content elements inside the split layout. Therefore, changing `width` on the
+ * content elements affects the initial splitter position for the horizontal
+ * layouts, while `height` affects the vertical ones.
  *
  * Note that when the total size of the content elements does not fit the layout,
  * the content elements are scaled proportionally.
@@ -137,12 +153,88 @@ import { mixinBehaviors } from '@polymer/polymer/lib/legacy/class.js';
  * </collapsible-vaadin-split-layout>
  * ```
  *
+ * The limits can also be given in pixels with the `primaryMinSize`,
+ * `primaryMaxSize`, `secondaryMinSize` and `secondaryMaxSize` properties. They
+ * are applied as the minimum and maximum sizes of the content elements, and the
+ * splitter is clamped to them while dragging without measuring the elements.
+ * A content element with a minimum size cannot be collapsed by dragging the
+ * splitter, but it can still be collapsed with the toggle buttons.
+ *
+ * ### Pixel Position
+ *
+ * With `splitterPositionUnit` set to `px`, `splitterPosition` is the size of the
+ * primary element in pixels. The primary element then keeps its size when this
+ * element is resized, and only the secondary element grows or shrinks:
+ *
+ * ```html
+ * <collapsible-vaadin-split-layout splitter-position="250" splitter-position-unit="px">
+ *   <div>Navigation</div>
+ *   <div>Content</div>
+ * </collapsible-vaadin-split-layout>
+ * ```
+ *
+ * ### Deferred Resize
+ *
+ * When the content elements are expensive to lay out, set the `deferredResize`
+ * property. Dragging then only moves a preview of the splitter, and the content
+ * elements are resized once when the drag ends:
+ *
+ * ```html
+ * <collapsible-vaadin-split-layout deferred-resize>
+ *   <div>First</div>
+ *   <div>Second</div>
+ * </collapsible-vaadin-split-layout>
+ * ```
+ *
+ * ### Animated Collapse
+ *
+ * Set `collapseAnimationDuration` to slide the content elements out and in when they
+ * are collapsed and expanded. Only `transform` and `opacity` are animated, and a
+ * collapsed element is removed from the layout once its animation has finished:
+ *
+ * ```html
+ * <collapsible-vaadin-split-layout collapse-animation-duration="200">
+ *   <div>First</div>
+ *   <div>Second</div>
+ * </collapsible-vaadin-split-layout>
+ * ```
+ *
+ * ### Auto-collapse
+ *
+ * The `autoCollapseRules` property collapses a content element while this element
+ * is narrower or lower than a breakpoint. The rules are evaluated in the browser
+ * with a `ResizeObserver`:
+ *
+ * ```html
+ * <collapsible-vaadin-split-layout auto-collapse-rules='[{"dimension": "width", "below": 600, "pane": "secondary"}]'>
+ *   <div>First</div>
+ *   <div>Second</div>
+ * </collapsible-vaadin-split-layout>
+ * ```
+ *
+ * ### Splitter Groups
+ *
+ * Elements with the same `splitterGroup` mirror each other's splitter position and
+ * collapsed state. While the splitter of one element is dragged, the position is
+ * copied to the other elements on every frame. When the drag ends, a single
+ * `splitter-group-sync` event is dispatched on the dragged element, so that the
+ * server can apply the position to the whole group:
+ *
+ * ```html
+ * <collapsible-vaadin-split-layout splitter-group="tiles">…</collapsible-vaadin-split-layout>
+ * <collapsible-vaadin-split-layout splitter-group="tiles">…</collapsible-vaadin-split-layout>
+ * ```
+ *
  * ### Resize Notification
  *
- * This element implements `IronResizableBehavior` to notify the nested resizables
- * when the splitter is dragged. In order to define a resizable and receive that
- * notification in a nested element, include `IronResizableBehavior` and listen
- * for the `iron-resize` event.
+ * This element notifies the nested resizables with an `iron-resize` event when the
+ * splitter is dragged, and when its own size changes, which is observed with a
+ * `ResizeObserver`. Elements using `IronResizableBehavior` are notified like with
+ * any other resizable parent. Elements that observe their own size, such as
+ * `<vaadin-grid>`, need no notification.
+ *
+ * How often the notification is sent while dragging is controlled with the
+ * `resizeNotification` property, see its documentation for the possible values.
  *
  * ### Styling
  *
@@ -152,22 +244,24 @@ import { mixinBehaviors } from '@polymer/polymer/lib/legacy/class.js';
  * ----------------|----------------|----------------
  * `splitter` | Split element | collapsible-vaadin-split-layout
  * `handle` | The handle of the splitter | collapsible-vaadin-split-layout
+ * `ghost` | The preview of the splitter while dragging with `deferredResize` | collapsible-vaadin-split-layout
  *
  * See [ThemableMixin – how to apply styles for shadow parts](https://github.com/vaadin/vaadin-themable-mixin/wiki)
  *
- * @extends PolymerElement
+ * The base styles and the styles registered for this element, such as the Lumo
+ * theme, are constructable stylesheets created once when the element class is
+ * defined, and adopted by the shadow root of every instance. Browsers without
+ * `adoptedStyleSheets` get a `<style>` element per instance instead.
+ *
+ * @extends LitElement
+ * @mixes PolylitMixin
  * @mixes ThemableMixin
- * @mixes GestureEventListeners
+ * @mixes ElementMixin
  * @demo demo/index.html
  */
-class CollapsibleSplitLayoutElement extends
-	ElementMixin(
-		ThemableMixin(
-			GestureEventListeners(
-				mixinBehaviors([IronResizableBehavior], PolymerElement)))) {
-	static get template() {
-		return html`
-    <style>
+class CollapsibleSplitLayoutElement extends ElementMixin(ThemableMixin(PolylitMixin(LitElement))) {
+	static get styles() {
+		return css`
       :host {
         display: flex;
         overflow: hidden !important;
@@ -195,6 +289,7 @@ class CollapsibleSplitLayoutElement extends
         overflow: visible;
         min-width: 8px;
         min-height: 8px;
+        touch-action: none;
       }
 
       :host(:not([orientation="vertical"])) > [part="splitter"] {
@@ -213,20 +308,53 @@ class CollapsibleSplitLayoutElement extends
         left: 50%;
         transform: translate3d(-50%, -50%, 0);
       }
-    </style>
-    <slot id="primary" name="primary"></slot>
-    <div part="splitter" id="splitter" on-track="_onHandleTrack" on-down="_setPointerEventsNone" on-up="_restorePointerEvents">
+
+      [part="ghost"] {
+        display: none;
+        position: absolute;
+        top: 0;
+        right: 0;
+        bottom: 0;
+        left: 0;
+        pointer-events: none;
+        background-color: rgba(0, 0, 0, 0.3);
+        will-change: transform;
+      }
+
+      :host([ghost-dragging]) [part="ghost"] {
+        display: block;
+      }
+
+      :host([primary-skipped]) ::slotted([slot="primary"]),
+      :host([secondary-skipped]) ::slotted([slot="secondary"]) {
+        content-visibility: hidden;
+        flex: 0 0 0 !important;
+        min-width: 0 !important;
+        min-height: 0 !important;
+        overflow: hidden !important;
+      }
+    `;
+	}
+
+	render() {
+		return html`
+    <slot id="primary" name="primary" @slotchange="${this._processChildren}"></slot>
+    <div part="splitter" id="splitter" @pointerdown="${this._onPointerDown}"
+        @pointermove="${this._pointerMoveListener}" @pointerup="${this._pointerUpListener}"
+        @pointercancel="${this._pointerUpListener}" @lostpointercapture="${this._pointerUpListener}"
+        @pointerleave="${this._pointerLeaveListener}">
       <div part="handle"></div>
+      <div part="ghost" id="ghost"></div>
       <div part="toggle">
-        <div part="toggle-left" on-click="_onToggleLeft"></div>
-        <div part="toggle-right" on-click="_onToggleRight"></div>
+        <div part="toggle-left" @click="${this._onToggleLeft}"></div>
+        <div part="toggle-right" @click="${this._onToggleRight}"></div>
       </div>
     </div>
-    <slot id="secondary" name="secondary"></slot>
+    <slot id="secondary" name="secondary" @slotchange="${this._processChildren}"></slot>
 
     <div hidden="">
-      <!-- Workaround to fix a Shady style scoping issue caused by dynamic slot naming of the child elements (primary/secondary) -->
-      <slot></slot>
+      <!-- Children without a slot are assigned to the primary and secondary slots in _processChildren -->
+      <slot @slotchange="${this._processChildren}"></slot>
     </div>
 `;
 	}
@@ -236,7 +364,7 @@ class CollapsibleSplitLayoutElement extends
 	}
 
 	static get version() {
-		return '1.0.0';
+		return '2.0.0';
 	}
 
 	static get properties() {
@@ -255,42 +383,350 @@ class CollapsibleSplitLayoutElement extends
 			collapsibleComponents: {
 				type: String,
 				reflectToAttribute: true,
+				attribute: 'collapsible-components',
 				value: 'none'
 			},
+			/**
+			 * The share of the primary element in percentages, clamped to the range [0, 100].
+			 * When set, the sizes of the content elements are set from it, also when they are
+			 * replaced or the orientation changes. Updated when the user stops dragging.
+			 */
+			splitterPosition: {
+				type: Number,
+				attribute: 'splitter-position'
+			},
+			/**
+			 * The unit of `splitterPosition`. Possible values are: `%`, the share of the
+			 * primary element, and `px`, the size of the primary element, which it then
+			 * keeps when this element is resized.
+			 */
+			splitterPositionUnit: {
+				type: String,
+				attribute: 'splitter-position-unit',
+				value: '%'
+			},
+			/**
+			 * The minimum size of the primary element in pixels, respected when the
+			 * splitter is dragged and when this element is resized.
+			 */
+			primaryMinSize: {
+				type: Number,
+				attribute: 'primary-min-size'
+			},
+			/**
+			 * The maximum size of the primary element in pixels.
+			 */
+			primaryMaxSize: {
+				type: Number,
+				attribute: 'primary-max-size'
+			},
+			/**
+			 * The minimum size of the secondary element in pixels.
+			 */
+			secondaryMinSize: {
+				type: Number,
+				attribute: 'secondary-min-size'
+			},
+			/**
+			 * The maximum size of the secondary element in pixels.
+			 */
+			secondaryMaxSize: {
+				type: Number,
+				attribute: 'secondary-max-size'
+			},
+			/**
+			 * If true, dragging the splitter only moves a preview of it, and the content
+			 * elements are resized when the drag ends.
+			 */
+			deferredResize: {
+				type: Boolean,
+				value: false,
+				reflectToAttribute: true,
+				attribute: 'deferred-resize'
+			},
+			/**
+			 * When nested resizables are notified with `iron-resize`. Possible values are:
+			 * `live` (on every frame while dragging), `throttled` (at most once per
+			 * `resizeNotificationThrottle` milliseconds while dragging), `on-drag-end`
+			 * and `none`. Except with `none`, they are also notified when dragging ends
+			 * and when a content element is collapsed or expanded.
+			 */
+			resizeNotification: {
+				type: String,
+				attribute: 'resize-notification',
+				value: 'live'
+			},
+			/**
+			 * The throttle timeout in milliseconds used with `resizeNotification="throttled"`.
+			 */
+			resizeNotificationThrottle: {
+				type: Number,
+				attribute: 'resize-notification-throttle',
+				value: 100
+			},
+			/**
+			 * The duration in milliseconds of the animation sliding a content element out
+			 * when it is collapsed and in when it is expanded. 0 disables the animation,
+			 * which is also not run when the user prefers reduced motion.
+			 */
+			collapseAnimationDuration: {
+				type: Number,
+				attribute: 'collapse-animation-duration',
+				value: 0
+			},
+			/**
+			 * The easing of the collapse animation, as a CSS easing function.
+			 */
+			collapseAnimationEasing: {
+				type: String,
+				attribute: 'collapse-animation-easing',
+				value: 'ease'
+			},
+			/**
+			 * How a collapsed content element is hidden. Possible values are: `display-none`,
+			 * which removes it from the layout, and `content-visibility`, which shrinks it to
+			 * no size and skips its rendering while keeping its rendering state, so that it
+			 * is expanded faster. Browsers without `content-visibility` use `display-none`.
+			 */
+			collapseStrategy: {
+				type: String,
+				attribute: 'collapse-strategy',
+				value: 'display-none'
+			},
+			/**
+			 * The name of the splitter group of this element. Elements of the same group
+			 * mirror each other's splitter position and collapsed state.
+			 */
+			splitterGroup: {
+				type: String,
+				attribute: 'splitter-group'
+			},
+			/**
+			 * The sequence number of the last `splitter-dragend` event handled by the
+			 * server. It is set by the server while metrics are collected, so the time
+			 * from the end of a drag to its acknowledgement is measured with the clock of
+			 * the browser, and sent with the next `splitter-dragend` event.
+			 */
+			dragEndAck: {
+				type: Number
+			},
+			/**
+			 * Rules collapsing a content element while the size of this element is below a
+			 * breakpoint, as objects like `{dimension: 'width', below: 600, pane: 'secondary'}`.
+			 * `dimension` is `width` or `height` and `pane` is `primary` or `secondary`. When
+			 * the size grows over the breakpoint again, the element is expanded, unless the
+			 * user has expanded it in between.
+			 */
+			autoCollapseRules: {
+				type: Array,
+				attribute: 'auto-collapse-rules',
+				value: () => []
+			},
 			/**
 			 * If true the primary component is collapsed. If the secondary component was collapsed, setting primaryCollapsed to true
 			 * will set secondaryCollapsed to false.
 			 */
 			primaryCollapsed: {
 				type: Boolean,
-				value: false,
 				reflectToAttribute: true,
-				notify: true,
-				observer: '_primaryCollapsedChanged'
+				attribute: 'primary-collapsed'
 			},
 			/**
 			 * If true the secondary component is collapsed. If the primary component was collapsed, setting secondaryCollapsed to true
-			 * will set secondaryCollapsed to false.
+			 * will set primaryCollapsed to false.
 			 */
 			secondaryCollapsed: {
 				type: Boolean,
-				value: false,
 				reflectToAttribute: true,
-				notify: true,
-				observer: '_secondaryCollapsedChanged'
-			},
-
-			_previousPrimaryPointerEvents: String,
-			_previousSecondaryPointerEvents: String
+				attribute: 'secondary-collapsed'
+			}
 		};
 	}
 
-	ready() {
-		super.ready();
-		new FlattenedNodesObserver(this, this._processChildren);
+	constructor() {
+		super();
+		this.primaryCollapsed = false;
+		this.secondaryCollapsed = false;
+
+		// Nested elements using IronResizableBehavior register themselves with
+		// their closest resizable parent through this event.
+		this._interestedResizables = [];
+		this._boundOnDescendantIronResize = this._onDescendantIronResize.bind(this);
+		this.addEventListener('iron-request-resize-notifications', (e) => this._onIronRequestResizeNotifications(e));
+
+		// The splitter captures the pointer while it is pressed, so the drag is
+		// followed without listeners on the document, and the content elements,
+		// including iframes, receive no pointer events in between
+		this._pointerMoveListener = { handleEvent: (e) => this._onPointerMove(e), passive: true };
+		this._pointerUpListener = { handleEvent: (e) => this._onPointerUp(e), passive: true };
+		this._pointerLeaveListener = { handleEvent: (e) => this._onPointerLeave(e), passive: true };
+		this._collapseAnimations = {};
+		this._dragEndSequence = 0;
+		this._dragEndLatency = -1;
+		this._autoCollapsed = {};
+		this._autoCollapseBelow = {};
+	}
+
+	/*
+	 * The collapsed properties have their own accessors, so that the content
+	 * elements are shown or hidden synchronously and the change is notified
+	 * right away, like with the former Polymer `notify: true` properties.
+	 */
+	get primaryCollapsed() {
+		return this._primaryCollapsed;
+	}
+
+	set primaryCollapsed(primaryCollapsed) {
+		const oldValue = this._primaryCollapsed;
+		this._primaryCollapsed = primaryCollapsed;
+		this.requestUpdate('primaryCollapsed', oldValue);
+		if (oldValue !== undefined && oldValue !== primaryCollapsed) {
+			if (primaryCollapsed && this.secondaryCollapsed) {
+				this.secondaryCollapsed = false;
+			}
+			this._primaryCollapsedChanged(primaryCollapsed);
+			this.dispatchEvent(new CustomEvent('primary-collapsed-changed', { detail: { value: primaryCollapsed } }));
+			// Setting an equal value on the members stops the mirroring
+			this._getSplitterGroupMembers().forEach((member) => {
+				member.primaryCollapsed = primaryCollapsed;
+			});
+		}
+	}
+
+	get secondaryCollapsed() {
+		return this._secondaryCollapsed;
+	}
+
+	set secondaryCollapsed(secondaryCollapsed) {
+		const oldValue = this._secondaryCollapsed;
+		this._secondaryCollapsed = secondaryCollapsed;
+		this.requestUpdate('secondaryCollapsed', oldValue);
+		if (oldValue !== undefined && oldValue !== secondaryCollapsed) {
+			if (secondaryCollapsed && this.primaryCollapsed) {
+				this.primaryCollapsed = false;
+			}
+			this._secondaryCollapsedChanged(secondaryCollapsed);
+			this.dispatchEvent(new CustomEvent('secondary-collapsed-changed', { detail: { value: secondaryCollapsed } }));
+			this._getSplitterGroupMembers().forEach((member) => {
+				member.secondaryCollapsed = secondaryCollapsed;
+			});
+		}
+	}
+
+	connectedCallback() {
+		super.connectedCallback();
+		this._resizeObserver = new ResizeObserver((entries) => {
+			this._checkAutoCollapse(entries[entries.length - 1].contentRect);
+			this._requestNotifyResize(false);
+		});
+		this._resizeObserver.observe(this);
+		this._joinSplitterGroup(this.splitterGroup);
+	}
+
+	disconnectedCallback() {
+		super.disconnectedCallback();
+		this._resizeObserver.disconnect();
+		this._resizeObserver = null;
+		this._leaveSplitterGroup(this.splitterGroup);
+		this._endDrag();
+		if (this._dragFrame) {
+			cancelAnimationFrame(this._dragFrame);
+			this._dragFrame = null;
+		}
+		clearTimeout(this._resizeThrottle);
+		this._resizeThrottle = null;
+	}
+
+	updated(props) {
+		super.updated(props);
+		if (props.has('splitterPosition') || props.has('splitterPositionUnit') || props.has('orientation')) {
+			this._applySplitterPosition();
+		}
+		if (['primaryMinSize', 'primaryMaxSize', 'secondaryMinSize', 'secondaryMaxSize', 'orientation']
+			.some((name) => props.has(name))) {
+			this._applySizeLimits();
+		}
+		if (props.has('splitterGroup') && this.isConnected) {
+			this._leaveSplitterGroup(props.get('splitterGroup'));
+			this._joinSplitterGroup(this.splitterGroup);
+		}
+		if (props.has('autoCollapseRules') && props.get('autoCollapseRules') !== undefined && this.isConnected) {
+			this._autoCollapseBelow = {};
+			this._checkAutoCollapse(this.getBoundingClientRect());
+		}
+		if (props.has('dragEndAck') && this.dragEndAck === this._dragEndSequence
+			&& this._dragEndStart !== undefined) {
+			this._dragEndLatency = Math.round(performance.now() - this._dragEndStart);
+			delete this._dragEndStart;
+		}
+		if (props.has('collapseStrategy') && props.get('collapseStrategy') !== undefined
+			&& this._primaryChild && this._secondaryChild) {
+			this._commitCollapsed('primary', this._primaryChild, this.primaryCollapsed);
+			this._commitCollapsed('secondary', this._secondaryChild, this.secondaryCollapsed);
+		}
+	}
+
+	firstUpdated() {
+		this._splitter = this.shadowRoot.getElementById('splitter');
+		this._ghost = this.shadowRoot.getElementById('ghost');
+		this._processChildren();
+	}
+
+	/**
+	 * Notifies the nested resizables and fires `iron-resize` on this element.
+	 */
+	notifyResize() {
+		if (!this.isConnected) {
+			return;
+		}
+		this._interestedResizables.forEach((resizable) => resizable.notifyResize());
+		this.dispatchEvent(new CustomEvent('iron-resize', { bubbles: false }));
+	}
+
+	/**
+	 * Used by nested `IronResizableBehavior` elements, which are notified by this element.
+	 */
+	resizerShouldNotify() {
+		return true;
+	}
+
+	/**
+	 * Used by nested `IronResizableBehavior` elements to stop being notified when detached.
+	 */
+	stopResizeNotificationsFor(target) {
+		const index = this._interestedResizables.indexOf(target);
+		if (index > -1) {
+			this._interestedResizables.splice(index, 1);
+			target.removeEventListener('iron-resize', this._boundOnDescendantIronResize);
+		}
+	}
+
+	_subscribeIronResize(target) {
+		target.addEventListener('iron-resize', this._boundOnDescendantIronResize);
+	}
+
+	_onIronRequestResizeNotifications(event) {
+		const target = event.composedPath()[0];
+		if (target === this || !target.assignParentResizable) {
+			return;
+		}
+		// Adds the target to _interestedResizables through _subscribeIronResize
+		target.assignParentResizable(this);
+		if (this.isConnected) {
+			target.notifyResize();
+		}
+		event.stopPropagation();
+	}
+
+	_onDescendantIronResize(event) {
+		// Stop descendant notifications from reaching resizables above this element
+		event.stopPropagation();
 	}
 
 	_onToggleLeft(e) {
+		if (this._suppressClick) {
+			return;
+		}
 		if (this.secondaryCollapsed) {
 			this.secondaryCollapsed = false;
 			var size = this.orientation === 'vertical' ? 'height' : 'width';
@@ -303,6 +739,9 @@ class CollapsibleSplitLayoutElement extends
 	}
 
 	_onToggleRight(e) {
+		if (this._suppressClick) {
+			return;
+		}
 		if (this.primaryCollapsed) {
 			this.primaryCollapsed = false;
 			var size = this.orientation === 'vertical' ? 'height' : 'width';
@@ -315,22 +754,125 @@ class CollapsibleSplitLayoutElement extends
 	}
 
 	_primaryCollapsedChanged(primaryCollapsed) {
+		if (!primaryCollapsed) {
+			// Expanded by the user or a rule, so no longer auto-collapsed
+			this._autoCollapsed.primary = false;
+		}
 		if (this._primaryChild && this._secondaryChild) {
-			this._primaryChild.style.display = primaryCollapsed ? 'none' : 'flex';
-			this.notifyResize();
+			this._setChildCollapsed('primary', this._primaryChild, primaryCollapsed);
 		}
 	}
 
 	_secondaryCollapsedChanged(secondaryCollapsed) {
+		if (!secondaryCollapsed) {
+			this._autoCollapsed.secondary = false;
+		}
 		if (this._primaryChild && this._secondaryChild) {
-			this._secondaryChild.style.display = secondaryCollapsed ? 'none' : 'flex';
-			this.notifyResize();
+			this._setChildCollapsed('secondary', this._secondaryChild, secondaryCollapsed);
+		}
+	}
+
+	/*
+	 * Applies the auto-collapse rules when the size of this element crosses their
+	 * breakpoints. Sizes staying on the same side of a breakpoint change nothing,
+	 * so the server only hears of actual collapsed state changes.
+	 */
+	_checkAutoCollapse(rect) {
+		(this.autoCollapseRules || []).forEach((rule) => {
+			const key = rule.dimension + ':' + rule.pane;
+			const below = rect[rule.dimension] < rule.below;
+			if (below === !!this._autoCollapseBelow[key]) {
+				return;
+			}
+			this._autoCollapseBelow[key] = below;
+			const property = rule.pane + 'Collapsed';
+			if (below) {
+				if (!this[property]) {
+					this[property] = true;
+					this._autoCollapsed[rule.pane] = true;
+				}
+			} else if (this._autoCollapsed[rule.pane]) {
+				this[property] = false;
+			}
+		});
+	}
+
+	_setChildCollapsed(pane, child, collapsed) {
+		const running = this._collapseAnimations[pane];
+		if (running) {
+			this._collapseAnimations[pane] = null;
+			running.cancel();
+		}
+		if (!this._shouldAnimateCollapse(child)) {
+			this._commitCollapsed(pane, child, collapsed);
+			this._requestNotifyResize(false);
+			return;
+		}
+
+		if (!collapsed) {
+			// The element needs its space before it can slide in
+			this._commitCollapsed(pane, child, false);
+			this._requestNotifyResize(false);
+		}
+		// Only transform and opacity are animated, which the compositor can do
+		// without a layout. A collapse is laid out once, when it has finished.
+		const hidden = { transform: this._getCollapsedTransform(pane), opacity: 0 };
+		const shown = { transform: 'none', opacity: 1 };
+		// The last frame is held until the collapsed state has been committed, so
+		// that the element does not snap back into view for a frame
+		const animation = child.animate(collapsed ? [shown, hidden] : [hidden, shown], {
+			duration: this.collapseAnimationDuration,
+			easing: this.collapseAnimationEasing,
+			fill: 'forwards'
+		});
+		this._collapseAnimations[pane] = animation;
+		animation.onfinish = () => {
+			this._collapseAnimations[pane] = null;
+			if (collapsed) {
+				this._commitCollapsed(pane, child, true);
+				this._requestNotifyResize(false);
+			}
+			// Removes the held frame in the same task, so the element is not left
+			// transformed when it is expanded again
+			animation.cancel();
+		};
+	}
+
+	/*
+	 * Removes a collapsed element from the layout, or restores an expanded one.
+	 * With the content-visibility strategy, the element keeps its rendering state
+	 * and is only shrunk to no size by the styles for the skipped attribute.
+	 */
+	_commitCollapsed(pane, child, collapsed) {
+		if (this._usesContentVisibility()) {
+			child.style.display = 'flex';
+			this.toggleAttribute(pane + '-skipped', collapsed);
+		} else {
+			this.removeAttribute(pane + '-skipped');
+			child.style.display = collapsed ? 'none' : 'flex';
+		}
+	}
+
+	_usesContentVisibility() {
+		return this.collapseStrategy === 'content-visibility' && window.CSS && CSS.supports('content-visibility', 'hidden');
+	}
+
+	_shouldAnimateCollapse(child) {
+		return this.collapseAnimationDuration > 0 && typeof child.animate === 'function' && this.isConnected
+			&& !window.matchMedia('(prefers-reduced-motion: reduce)').matches;
+	}
+
+	_getCollapsedTransform(pane) {
+		// Slides the element out over the edge of the layout next to it
+		if (this.orientation === 'vertical') {
+			return pane === 'primary' ? 'translateY(-100%)' : 'translateY(100%)';
 		}
+		const towardsStart = (pane === 'primary') !== (this.getAttribute('dir') === 'rtl');
+		return towardsStart ? 'translateX(-100%)' : 'translateX(100%)';
 	}
 
 	_processChildren() {
-		console.log('_processChildren');
-		this.getEffectiveChildren().forEach((child, i) => {
+		Array.from(this.children).forEach((child, i) => {
 			if (i === 0) {
 				this._primaryChild = child;
 				child.setAttribute('slot', 'primary');
@@ -341,6 +883,80 @@ class CollapsibleSplitLayoutElement extends
 				child.removeAttribute('slot');
 			}
 		});
+
+		// Children may be replaced while collapsed (e.g. a lazy placeholder), or the
+		// collapsed state may have been set before the children were available.
+		if (this._primaryChild && this._secondaryChild) {
+			if (this.primaryCollapsed) {
+				this._commitCollapsed('primary', this._primaryChild, true);
+			}
+			if (this.secondaryCollapsed) {
+				this._commitCollapsed('secondary', this._secondaryChild, true);
+			}
+			this._applySplitterPosition();
+			this._applySizeLimits();
+		}
+	}
+
+	_applySplitterPosition() {
+		if (this.splitterPosition == null || !this._primaryChild || !this._secondaryChild) {
+			return;
+		}
+		const size = this.orientation === 'vertical' ? 'height' : 'width';
+		const previousSize = this._splitterPositionSize;
+		if (previousSize && previousSize !== size) {
+			this._primaryChild.style[previousSize] = '';
+			this._secondaryChild.style[previousSize] = '';
+		}
+		if (this.splitterPositionUnit === 'px') {
+			// The primary element keeps its size when this element is resized
+			this._primaryChild.style.flex = '0 0 ' + Math.max(this.splitterPosition, 0) + 'px';
+			this._primaryChild.style[size] = '';
+			this._secondaryChild.style.flex = '';
+			this._secondaryChild.style[size] = '';
+		} else {
+			const primary = Math.min(Math.max(this.splitterPosition, 0), 100);
+			[[this._primaryChild, primary], [this._secondaryChild, 100 - primary]].forEach(([child, share]) => {
+				child.style.flex = '';
+				child.style[size] = share + '%';
+			});
+		}
+		this._splitterPositionSize = size;
+	}
+
+	/*
+	 * Sets the size limits as the minimum and maximum sizes of the elements, so
+	 * that they are also respected when this element is resized.
+	 */
+	_applySizeLimits() {
+		if (!this._primaryChild || !this._secondaryChild) {
+			return;
+		}
+		const vertical = this.orientation === 'vertical';
+		const limits = [
+			[this._primaryChild, this.primaryMinSize, this.primaryMaxSize],
+			[this._secondaryChild, this.secondaryMinSize, this.secondaryMaxSize]
+		];
+		if (!this._sizeLimitsApplied && limits.every(([child, min, max]) => !(min > 0) && !(max > 0))) {
+			// Leaves limits set with CSS alone
+			return;
+		}
+		limits.forEach(([child, min, max]) => {
+			child.style[vertical ? 'minHeight' : 'minWidth'] = min > 0 ? min + 'px' : '';
+			child.style[vertical ? 'maxHeight' : 'maxWidth'] = max > 0 ? max + 'px' : '';
+			child.style[vertical ? 'minWidth' : 'minHeight'] = '';
+			child.style[vertical ? 'maxWidth' : 'maxHeight'] = '';
+		});
+		this._sizeLimitsApplied = true;
+	}
+
+	_dispatchPositionChanged(primarySize, total) {
+		this.dispatchEvent(new CustomEvent('splitter-position-changed', {
+			detail: {
+				position: total > 0 ? primarySize / total * 100 : 0,
+				pixels: primarySize
+			}
+		}));
 	}
 
 	_setFlexBasis(element, flexBasis, containerSize) {
@@ -352,84 +968,303 @@ class CollapsibleSplitLayoutElement extends
 		element.style.flex = '1 1 ' + flexBasis + 'px';
 	}
 
-	_setPointerEventsNone(event) {
-		if (!this._primaryChild || !this._secondaryChild) {
+	_onPointerDown(event) {
+		if (!event.isPrimary || event.button !== 0 || this._pointer) {
 			return;
 		}
-		this._previousPrimaryPointerEvents = this._primaryChild.style.pointerEvents;
-		this._previousSecondaryPointerEvents = this._secondaryChild.style.pointerEvents;
-		this._primaryChild.style.pointerEvents = 'none';
-		this._secondaryChild.style.pointerEvents = 'none';
-
+		const onToggle = event.composedPath().some((node) => node.part
+			&& (node.part.contains('toggle-left') || node.part.contains('toggle-right')));
+		this._pointer = {
+			id: event.pointerId,
+			x: event.clientX,
+			y: event.clientY,
+			dragging: false
+		};
+		this._suppressClick = false;
+		// The click of a captured pointer goes to the splitter, so a pressed toggle
+		// is captured only once the pointer is dragged or leaves the splitter
+		if (!onToggle) {
+			this._capturePointer();
+		}
+		// Prevents text selection while dragging
 		event.preventDefault();
 	}
 
-	_restorePointerEvents() {
-		if (!this._primaryChild || !this._secondaryChild) {
+	_capturePointer() {
+		if (!this._splitter.hasPointerCapture(this._pointer.id)) {
+			this._splitter.setPointerCapture(this._pointer.id);
+		}
+	}
+
+	_onPointerLeave(event) {
+		if (this._pointer && event.pointerId === this._pointer.id) {
+			this._capturePointer();
+		}
+	}
+
+	_onPointerMove(event) {
+		if (!this._pointer || event.pointerId !== this._pointer.id) {
+			return;
+		}
+		const dx = event.clientX - this._pointer.x;
+		const dy = event.clientY - this._pointer.y;
+		if (!this._pointer.dragging) {
+			if (Math.abs(dx) <= DRAG_THRESHOLD && Math.abs(dy) <= DRAG_THRESHOLD) {
+				return;
+			}
+			this._pointer.dragging = true;
+			this._capturePointer();
+			this._onDragStart();
+		}
+		this._onDragMove(dx, dy);
+	}
+
+	_onPointerUp(event) {
+		if (!this._pointer || event.pointerId !== this._pointer.id) {
 			return;
 		}
-		this._primaryChild.style.pointerEvents = this._previousPrimaryPointerEvents;
-		this._secondaryChild.style.pointerEvents = this._previousSecondaryPointerEvents;
+		const pointer = this._pointer;
+		this._endDrag();
+		if (pointer.dragging) {
+			// A drag started on a toggle does not toggle it when released
+			this._suppressClick = true;
+			setTimeout(() => {
+				this._suppressClick = false;
+			});
+			this._onDragEnd(event.clientX - pointer.x, event.clientY - pointer.y);
+		}
+	}
+
+	_endDrag() {
+		if (!this._pointer) {
+			return;
+		}
+		const id = this._pointer.id;
+		this._pointer = null;
+		if (this._splitter && this._splitter.hasPointerCapture(id)) {
+			this._splitter.releasePointerCapture(id);
+		}
 	}
 
-	_onHandleTrack(event) {
+	_onDragStart() {
 		if (!this._primaryChild || !this._secondaryChild) {
 			return;
 		}
+		var size = this.orientation === 'vertical' ? 'height' : 'width';
+		// All measurements are taken once, before any style is written, so that
+		// moving the splitter never forces a synchronous layout.
+		this._startSize = {
+			container: this.getBoundingClientRect()[size] - this._splitter.getBoundingClientRect()[size],
+			primary: this._primaryChild.getBoundingClientRect()[size],
+			secondary: this._secondaryChild.getBoundingClientRect()[size],
+			rtl: this.orientation !== 'vertical' && this.getAttribute('dir') === 'rtl'
+		};
+	}
 
+	_onDragMove(dx, dy) {
+		if (!this._startSize) {
+			return;
+		}
+		var distance = this.orientation === 'vertical' ? dy : dx;
+		this._dragDistance = this._startSize.rtl ? -distance : distance;
+
+		if (!this._dragFrame) {
+			// Pointer moves are coalesced into a single style write per frame
+			this._dragFrame = requestAnimationFrame(() => {
+				this._dragFrame = null;
+				if (this.deferredResize) {
+					this._moveGhost();
+				} else {
+					this._applyDragDistance(false);
+				}
+			});
+		}
+	}
+
+	_onDragEnd(dx, dy) {
+		if (!this._startSize) {
+			return;
+		}
 		var size = this.orientation === 'vertical' ? 'height' : 'width';
-		if (event.detail.state === 'start') {
-			this._startSize = {
-				container: this.getBoundingClientRect()[size] - this.$.splitter.getBoundingClientRect()[size],
-				primary: this._primaryChild.getBoundingClientRect()[size],
-				secondary: this._secondaryChild.getBoundingClientRect()[size]
-			};
+		var distance = this.orientation === 'vertical' ? dy : dx;
+		this._dragDistance = this._startSize.rtl ? -distance : distance;
+
+		if (this._dragFrame) {
+			cancelAnimationFrame(this._dragFrame);
+			this._dragFrame = null;
+		}
+		if (this.hasAttribute('ghost-dragging')) {
+			this.removeAttribute('ghost-dragging');
+			this._ghost.style.transform = '';
+		}
+		this._applyDragDistance(true);
+
+		this._dragEndSequence++;
+		this._dragEndStart = performance.now();
+		this.dispatchEvent(new CustomEvent('splitter-dragend', {
+			detail: { sequence: this._dragEndSequence, latency: this._dragEndLatency }
+		}));
+		this._dragEndLatency = -1;
+
+		if (this.collapsibleComponents != 'none') {
+			if (this._primaryChild.getBoundingClientRect()[size] < 1) {
+				this.primaryCollapsed = true;
+			} else if (this._secondaryChild.getBoundingClientRect()[size] < 1) {
+				this.secondaryCollapsed = true;
+			}
+		}
+
+		delete this._startSize;
+	}
+
+	_moveGhost() {
+		if (!this._startSize) {
+			return;
+		}
+		// Only the transform of the preview changes, which the compositor can
+		// animate without a layout of the content elements.
+		const dirDistance = this._clampPrimarySize(this._startSize.primary + this._dragDistance) - this._startSize.primary;
+		const distance = this._startSize.rtl ? -dirDistance : dirDistance;
+		this._ghost.style.transform = this.orientation === 'vertical'
+			? 'translate3d(0, ' + distance + 'px, 0)'
+			: 'translate3d(' + distance + 'px, 0, 0)';
+		this.setAttribute('ghost-dragging', '');
+	}
+
+	_getSplitterGroupMembers() {
+		const members = this.splitterGroup && splitterGroups.get(this.splitterGroup);
+		return members ? [...members].filter((member) => member !== this) : [];
+	}
 
+	_joinSplitterGroup(name) {
+		if (!name) {
 			return;
 		}
+		if (!splitterGroups.has(name)) {
+			splitterGroups.set(name, new Set());
+		}
+		splitterGroups.get(name).add(this);
+	}
+
+	_leaveSplitterGroup(name) {
+		const members = name && splitterGroups.get(name);
+		if (members) {
+			members.delete(this);
+			if (members.size === 0) {
+				splitterGroups.delete(name);
+			}
+		}
+	}
+
+	/*
+	 * Copies the position to the other elements of the splitter group. Only
+	 * their styles are updated while dragging, and the server is notified once
+	 * for the whole group when the drag ends.
+	 */
+	_mirrorSplitterPosition(position, dragEnd) {
+		const members = this._getSplitterGroupMembers();
+		members.forEach((member) => {
+			member.splitterPositionUnit = this.splitterPositionUnit;
+			member.splitterPosition = position;
+		});
+		if (dragEnd && members.length > 0) {
+			this.dispatchEvent(new CustomEvent('splitter-group-sync'));
+		}
+	}
 
-		var distance = this.orientation === 'vertical' ? event.detail.dy : event.detail.dx;
-		const isRtl = this.orientation !== 'vertical' && this.getAttribute('dir') === 'rtl';
-		const dirDistance = isRtl ? -distance : distance;
+	/*
+	 * Clamps the size of the primary element while dragging to the size limits
+	 * of both elements, without measuring anything.
+	 */
+	_clampPrimarySize(primarySize) {
+		const total = this._startSize.primary + this._startSize.secondary;
+		let min = Math.max(this.primaryMinSize || 0, this.secondaryMaxSize > 0 ? total - this.secondaryMaxSize : 0);
+		let max = Math.min(this.primaryMaxSize > 0 ? this.primaryMaxSize : total, total - (this.secondaryMinSize || 0));
+		min = Math.min(Math.max(min, 0), total);
+		max = Math.max(Math.min(max, total), min);
+		return Math.max(min, Math.min(primarySize, max));
+	}
+
+	_applyDragDistance(dragEnd) {
+		if (!this._startSize) {
+			return;
+		}
+		const primarySize = this._clampPrimarySize(this._startSize.primary + this._dragDistance);
+		const dirDistance = primarySize - this._startSize.primary;
 
 		this._setFlexBasis(this._primaryChild, this._startSize.primary + dirDistance, this._startSize.container);
 		this._setFlexBasis(this._secondaryChild, this._startSize.secondary - dirDistance, this._startSize.container);
 
+		const total = this._startSize.primary + this._startSize.secondary;
+		// Converts the pixel sizes set while dragging to the unit of the position
+		const position = this.splitterPositionUnit === 'px'
+			? primarySize
+			: (total > 0 ? primarySize / total * 100 : 0);
+		if (dragEnd) {
+			this.splitterPosition = position;
+		}
+		this._dispatchPositionChanged(primarySize, total);
+		this._mirrorSplitterPosition(position, dragEnd);
+
 		if (this.primaryCollapsed || this.secondaryCollapsed) {
 			this.primaryCollapsed = false;
 			this.secondaryCollapsed = false;
 		}
 
-		this.notifyResize();
-
-		if (event.detail.state === 'end') {
-			this.dispatchEvent(new CustomEvent('splitter-dragend'));
+		this._requestNotifyResize(!dragEnd);
+	}
 
-			if (this.collapsibleComponents != 'none') {
-				if (this._primaryChild.getBoundingClientRect()[size] < 1) {
-					this.primaryCollapsed = true;
-				} else if (this._secondaryChild.getBoundingClientRect()[size] < 1) {
-					this.secondaryCollapsed = true;
-				}
+	_requestNotifyResize(dragging) {
+		if (this.resizeNotification === 'none') {
+			return;
+		}
+		if (dragging && this.resizeNotification === 'on-drag-end') {
+			return;
+		}
+		if (this.resizeNotification === 'throttled') {
+			if (dragging && this._resizeThrottle) {
+				this._resizePending = true;
+				return;
+			}
+			clearTimeout(this._resizeThrottle);
+			this._resizeThrottle = null;
+			this._resizePending = false;
+			if (dragging) {
+				this._resizeThrottle = setTimeout(() => {
+					this._resizeThrottle = null;
+					if (this._resizePending) {
+						this._resizePending = false;
+						this.notifyResize();
+					}
+				}, this.resizeNotificationThrottle);
 			}
-
-
-			delete this._startSize;
 		}
+		this.notifyResize();
 	}
 
 	/**
-	 * Fired when the splitter is dragged. Non-bubbling. Fired for the splitter
-	 * element and any nested elements with `IronResizableBehavior`.
+	 * Fired when the splitter is dragged or the size of the element changes.
+	 * Non-bubbling. Fired for the splitter element and any nested elements with
+	 * `IronResizableBehavior`.
 	 *
 	 * @event iron-resize
 	 */
 
 	/**
-	 * Fired after dragging the splitter have ended.
+	 * Fired after dragging the splitter have ended. `event.detail.sequence` numbers
+	 * the drag ends of this element, and `event.detail.latency` is the time in
+	 * milliseconds from the previous drag end until the server acknowledged it
+	 * with `dragEndAck`, or -1 if it has not been measured.
 	 *
 	 * @event splitter-dragend
 	 */
+
+	/**
+	 * Fired when the splitter is moved. `event.detail.position` is the share of the
+	 * primary element in percentages and `event.detail.pixels` its size in pixels.
+	 *
+	 * @event splitter-position-changed
+	 */
 }
 
 customElements.define(CollapsibleSplitLayoutElement.is, CollapsibleSplitLayoutElement);
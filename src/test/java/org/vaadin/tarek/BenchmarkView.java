@@ -0,0 +1,58 @@
+package org.vaadin.tarek;
+
+import org.vaadin.tarek.CollapsibleSplitLayout.Orientation;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.router.BeforeEvent;
+import com.vaadin.flow.router.HasUrlParameter;
+import com.vaadin.flow.router.OptionalParameter;
+import com.vaadin.flow.router.Route;
+
+/**
+ * View for {@link DragAndCollapseBenchmarkIT}, with the number of nested
+ * layouts given as the URL parameter, e.g. {@code benchmark/16}.
+ */
+@Route("benchmark")
+public class BenchmarkView extends Div implements HasUrlParameter<Integer> {
+
+    static final int MAX_DEPTH = 64;
+    private static final int ROWS_PER_PANE = 200;
+
+    public BenchmarkView() {
+        setWidthFull();
+        setHeight("100vh");
+    }
+
+    private static Component createContent(int level) {
+        Div content = new Div();
+        for (int row = 0; row < ROWS_PER_PANE; row++) {
+            content.add(new Paragraph("Level " + level + ", row " + row
+                    + ": Lorem ipsum dolor sit amet, consectetur adipiscing"
+                    + " elit, sed do eiusmod tempor incididunt ut labore."));
+        }
+        return content;
+    }
+
+    @Override
+    public void setParameter(BeforeEvent event,
+            @OptionalParameter Integer depth) {
+        int levels = Math.max(1,
+                Math.min(depth == null ? 1 : depth, MAX_DEPTH));
+
+        Component inner = createContent(levels);
+        for (int level = levels - 1; level >= 0; level--) {
+            CollapsibleSplitLayout layout = new CollapsibleSplitLayout(
+                    createContent(level), inner);
+            layout.setOrientation(level % 2 == 0 ? Orientation.HORIZONTAL
+                    : Orientation.VERTICAL);
+            layout.setPrimaryComponentCollapsible(true);
+            layout.setSecondaryComponentCollapsible(true);
+            layout.setSizeFull();
+            inner = layout;
+        }
+        removeAll();
+        add(inner);
+    }
+}
@@ -0,0 +1,60 @@
+package org.vaadin.tarek;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.interactions.Actions;
+
+import com.vaadin.testbench.TestBenchElement;
+
+public class CollapsibleMultiSplitLayoutIT extends AbstractViewTest {
+
+    private static final String SIZES_SCRIPT = """
+            return Array.from(arguments[0].children).map((pane) => pane.style.width);
+            """;
+
+    public CollapsibleMultiSplitLayoutIT() {
+        super("multi");
+    }
+
+    @Test
+    public void dragSplitter_resizesNeighboursInPercentages() {
+        TestBenchElement layout = $("collapsible-vaadin-multi-split-layout")
+                .first();
+        TestBenchElement sizes = $(TestBenchElement.class).id("sizes");
+        Assert.assertEquals("20 60 20", sizes.getText());
+
+        TestBenchElement splitter = layout.$(TestBenchElement.class)
+                .attribute("part", "splitter").first();
+        new Actions(getDriver()).clickAndHold(splitter).moveByOffset(20, 0)
+                .moveByOffset(80, 0).release().perform();
+
+        // 100 pixels of the 1000 pixels wide layout move to the first pane
+        waitUntil(driver -> !"20 60 20".equals(sizes.getText()));
+        String[] shares = sizes.getText().split(" ");
+        Assert.assertEquals(3, shares.length);
+        Assert.assertEquals(30, Integer.parseInt(shares[0]), 1);
+        Assert.assertEquals(50, Integer.parseInt(shares[1]), 1);
+        Assert.assertEquals(20, Integer.parseInt(shares[2]), 1);
+
+        @SuppressWarnings("unchecked")
+        List<String> widths = (List<String>) executeScript(SIZES_SCRIPT,
+                layout);
+        Assert.assertEquals(3, widths.size());
+        widths.forEach(width -> Assert.assertTrue(
+                "All panes are sized in percentages, was " + widths,
+                width.endsWith("%")));
+    }
+
+    @Test
+    public void toggle_collapsesFirstPane() {
+        TestBenchElement layout = $("collapsible-vaadin-multi-split-layout")
+                .first();
+        layout.$(TestBenchElement.class).attribute("part", "toggle-left")
+                .first().click();
+
+        waitUntil(driver -> "none".equals(executeScript(
+                "return arguments[0].children[0].style.display", layout)));
+    }
+}
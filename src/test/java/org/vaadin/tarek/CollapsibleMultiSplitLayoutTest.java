@@ -0,0 +1,188 @@
+package org.vaadin.tarek;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.tarek.CollapsibleMultiSplitLayout.CollapseStateChangedEvent;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+public class CollapsibleMultiSplitLayoutTest {
+
+    private UI ui;
+
+    @Test
+    public void addPanes_appendsChildren() {
+        Div first = new Div();
+        Div second = new Div();
+        CollapsibleMultiSplitLayout layout = new CollapsibleMultiSplitLayout(
+                first);
+        layout.addPanes(second);
+
+        Assert.assertEquals(2, layout.getPaneCount());
+        Assert.assertEquals(Arrays.asList(first, second), layout.getPanes());
+        Assert.assertEquals(second.getElement(),
+                layout.getElement().getChild(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addPanes_samePaneTwice_throws() {
+        Div pane = new Div();
+        new CollapsibleMultiSplitLayout(pane).addPanes(pane);
+    }
+
+    @Test
+    public void elementApiChanges_reflectedInPanes() {
+        Div first = new Div();
+        Div second = new Div();
+        CollapsibleMultiSplitLayout layout = new CollapsibleMultiSplitLayout(
+                first, second);
+
+        layout.getElement().removeChild(first.getElement());
+        Assert.assertEquals(Arrays.asList(second), layout.getPanes());
+
+        // Moving a pane to another parent removes it from the layout
+        new Div(second);
+        Assert.assertEquals(0, layout.getPaneCount());
+        layout.addPanes(second);
+        Assert.assertEquals(Arrays.asList(second), layout.getPanes());
+    }
+
+    @Test
+    public void removeAll_clearsPanesAndStates() {
+        CollapsibleMultiSplitLayout layout = new CollapsibleMultiSplitLayout(
+                new Div(), new Div());
+        layout.setPaneCollapsed(0, true);
+        layout.setPaneSizes(40, 60);
+
+        layout.removeAll();
+
+        Assert.assertEquals(0, layout.getPaneCount());
+        Assert.assertEquals(0, layout.getPaneSizes().length);
+        layout.addPanes(new Div());
+        Assert.assertFalse(layout.isPaneCollapsed(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void remove_notAPane_throws() {
+        new CollapsibleMultiSplitLayout(new Div()).remove(new Div());
+    }
+
+    @Test
+    public void remove_shiftsStatesOfFollowingPanes() {
+        Div first = new Div();
+        Div second = new Div();
+        Div third = new Div();
+        CollapsibleMultiSplitLayout layout = new CollapsibleMultiSplitLayout(
+                first, second, third);
+        layout.setPaneCollapsible(2, true);
+        layout.setPaneCollapsed(2, true);
+        layout.setPaneSizes(20, 30, 50);
+
+        layout.remove(second);
+
+        Assert.assertEquals(Arrays.asList(first, third), layout.getPanes());
+        Assert.assertFalse(layout.isPaneCollapsible(0));
+        Assert.assertTrue(layout.isPaneCollapsible(1));
+        Assert.assertTrue(layout.isPaneCollapsed(1));
+        Assert.assertArrayEquals(new double[] { 20, 50 },
+                layout.getPaneSizes(), 0);
+    }
+
+    @Test
+    public void setPaneCollapsed_firesEvent() {
+        CollapsibleMultiSplitLayout layout = new CollapsibleMultiSplitLayout(
+                new Div(), new Div(), new Div());
+        ui.add(layout);
+        List<CollapseStateChangedEvent> events = new ArrayList<>();
+        layout.addCollapseStateChangedListener(events::add);
+
+        layout.setPaneCollapsed(1, true);
+        layout.setPaneCollapsed(1, true);
+
+        Assert.assertTrue(layout.isPaneCollapsed(1));
+        Assert.assertFalse(layout.isPaneCollapsed(0));
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(1, events.get(0).getPaneIndex());
+        Assert.assertTrue(events.get(0).isCollapsed());
+        Assert.assertFalse(events.get(0).isFromClient());
+
+        JsonArray collapsed = Json.createArray();
+        collapsed.set(0, false);
+        collapsed.set(1, false);
+        collapsed.set(2, true);
+        MockUI.setClientProperty(layout.getElement(), "collapsedPanes",
+                collapsed);
+
+        Assert.assertEquals(3, events.size());
+        Assert.assertTrue(events.get(1).isFromClient());
+        Assert.assertEquals(1, events.get(1).getPaneIndex());
+        Assert.assertFalse(events.get(1).isCollapsed());
+        Assert.assertEquals(2, events.get(2).getPaneIndex());
+        Assert.assertTrue(events.get(2).isCollapsed());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setPaneCollapsed_invalidIndex_throws() {
+        new CollapsibleMultiSplitLayout(new Div()).setPaneCollapsed(1, true);
+    }
+
+    @Test
+    public void setPaneSizes_firesEventAndCanBeCleared() {
+        CollapsibleMultiSplitLayout layout = new CollapsibleMultiSplitLayout(
+                new Div(), new Div());
+        ui.add(layout);
+        List<double[]> events = new ArrayList<>();
+        layout.addPaneSizesChangedListener(e -> events.add(e.getPaneSizes()));
+
+        layout.setPaneSizes(25, 75);
+
+        Assert.assertArrayEquals(new double[] { 25, 75 },
+                layout.getPaneSizes(), 0);
+        Assert.assertEquals(1, events.size());
+
+        layout.setPaneSizes();
+
+        Assert.assertEquals(0, layout.getPaneSizes().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setPaneSizes_negative_throws() {
+        new CollapsibleMultiSplitLayout(new Div()).setPaneSizes(-1);
+    }
+
+    @Test
+    public void setPane_replacesChildAndKeepsState() {
+        Div second = new Div();
+        CollapsibleMultiSplitLayout layout = new CollapsibleMultiSplitLayout(
+                new Div(), second);
+        layout.setPaneCollapsed(0, true);
+
+        Div replacement = new Div();
+        layout.setPane(0, replacement);
+
+        Assert.assertEquals(Arrays.asList(replacement, second),
+                layout.getPanes());
+        Assert.assertTrue(layout.isPaneCollapsed(0));
+    }
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        UI.setCurrent(ui);
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+}
@@ -0,0 +1,344 @@
+package org.vaadin.tarek;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Checks the changes sent to the client and the heap retained per layout,
+ * without a browser. The changes are collected like for a UIDL response: the
+ * state tree changes, the new constants they refer to and the pending
+ * JavaScript invocations.
+ * <p>
+ * Each scenario may only touch the nodes and properties it changes, and never
+ * needs JavaScript invocations. Its size is budgeted relative to the same
+ * operation on plain elements, measured in the same run, so the budgets follow
+ * the Flow version. This catches regressions such as resending both panes when
+ * only one is replaced. The measured sizes are written to
+ * {@code target/benchmark-reports/payload.json} when running with
+ * {@code -Dbenchmark.reports=true}.
+ */
+public class CollapsibleSplitLayoutPayloadTest {
+
+    /*
+     * Rendering a layout sends its listeners, attributes and properties on top
+     * of the three elements of a plain container with the same two panes.
+     */
+    private static final double MAX_RENDER_RELATIVE_TO_CONTAINER = 8;
+    // Replacing a pane also sends the slot of the new component
+    private static final double MAX_PANE_SWAP_RELATIVE_TO_CONTAINER = 3;
+    // Property changes send nothing but the properties themselves
+    private static final double MAX_PROPERTY_CHANGE_RELATIVE_TO_ELEMENT = 1.5;
+    // Listeners, registrations and the client state kept for each element
+    private static final double MAX_HEAP_RELATIVE_TO_CONTAINER = 4;
+    private static final int HEAP_INSTANCES = 500;
+    private static final String REPORT_PROPERTY = "benchmark.reports";
+    private static final Path REPORT = Paths.get("target",
+            "benchmark-reports", "payload.json");
+    private static final JsonObject reportedSizes = Json.createObject();
+
+    private record Payload(JsonArray changes, int bytes,
+            int javaScriptInvocations) {
+
+        Set<Integer> nodes() {
+            Set<Integer> nodes = new HashSet<>();
+            for (int i = 0; i < changes.length(); i++) {
+                nodes.add((int) changes.getObject(i)
+                        .getNumber(JsonConstants.CHANGE_NODE));
+            }
+            return nodes;
+        }
+
+        Set<String> keys() {
+            Set<String> keys = new HashSet<>();
+            for (int i = 0; i < changes.length(); i++) {
+                JsonObject change = changes.getObject(i);
+                if (change.hasKey(JsonConstants.CHANGE_MAP_KEY)) {
+                    keys.add(change.getString(JsonConstants.CHANGE_MAP_KEY));
+                }
+            }
+            return keys;
+        }
+    }
+
+    private UI ui;
+
+    private static void assertNoJavaScript(String scenario, Payload payload) {
+        Assert.assertEquals(scenario + ": JavaScript invocations", 0,
+                payload.javaScriptInvocations());
+    }
+
+    private static void assertOnlyNodes(String scenario, Payload payload,
+            Component... components) {
+        Set<Integer> expected = new HashSet<>();
+        for (Component component : components) {
+            expected.add(component.getElement().getNode().getId());
+        }
+        Set<Integer> unexpected = new HashSet<>(payload.nodes());
+        unexpected.removeAll(expected);
+        Assert.assertTrue(scenario + " changed unexpected nodes " + unexpected
+                + " in " + payload.changes().toJson(), unexpected.isEmpty());
+    }
+
+    private static void assertWithinBudget(String scenario, Payload payload,
+            Payload baseline, double maxRelativeToBaseline) {
+        JsonObject sizes = Json.createObject();
+        sizes.put("bytes", payload.bytes());
+        sizes.put("baselineBytes", baseline.bytes());
+        reportedSizes.put(scenario, sizes);
+        Assert.assertTrue(scenario + " sent " + payload.bytes()
+                + " bytes, the baseline " + baseline.bytes() + " bytes",
+                payload.bytes() <= baseline.bytes() * maxRelativeToBaseline);
+    }
+
+    private Element attachElement() {
+        Div element = new Div();
+        ui.add(element);
+        collectPayload();
+        return element.getElement();
+    }
+
+    private CollapsibleSplitLayout attachLayout() {
+        CollapsibleSplitLayout layout = createLayout();
+        ui.add(layout);
+        collectPayload();
+        return layout;
+    }
+
+    private Payload collectPayload() {
+        UIInternals internals = ui.getInternals();
+        internals.getStateTree().runExecutionsBeforeClientResponse();
+        JsonArray changes = Json.createArray();
+        internals.getStateTree().collectChanges(change -> changes.set(
+                changes.length(), change.toJson(internals.getConstantPool())));
+        int bytes = changes.toJson().length();
+        if (internals.getConstantPool().hasNewConstants()) {
+            bytes += internals.getConstantPool().dumpConstants().toJson()
+                    .length();
+        }
+        List<PendingJavaScriptInvocation> invocations = internals
+                .dumpPendingJavaScriptInvocations();
+        for (PendingJavaScriptInvocation invocation : invocations) {
+            bytes += invocation.getInvocation().getExpression().length();
+        }
+        return new Payload(changes, bytes, invocations.size());
+    }
+
+    private static Div createContainer() {
+        return new Div(new Div(), new Div());
+    }
+
+    private static CollapsibleSplitLayout createLayout() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setPrimaryComponentCollapsible(true);
+        return layout;
+    }
+
+    private long retainedHeapPerInstance(
+            Supplier<? extends Component> factory) {
+        ui.removeAll();
+        collectPayload();
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < HEAP_INSTANCES; i++) {
+            ui.add(factory.get());
+        }
+        // Includes the client state kept after the response is written
+        collectPayload();
+        return (usedHeapAfterGc() - before) / HEAP_INSTANCES;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        // A single collection may leave garbage of finalizable objects behind
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    public void collapseToggle_onlyCollapsedProperties() {
+        CollapsibleSplitLayout layout = attachLayout();
+        Set<String> collapsedProperties = Set.of("primaryCollapsed",
+                "secondaryCollapsed");
+
+        layout.setPrimaryCollapsed(true);
+        Payload collapse = collectPayload();
+        layout.setPrimaryCollapsed(false);
+        Payload expand = collectPayload();
+        Element element = attachElement();
+        element.setProperty("secondaryCollapsed", false);
+        element.setProperty("primaryCollapsed", true);
+        Payload baselineCollapse = collectPayload();
+        element.setProperty("primaryCollapsed", false);
+        Payload baselineExpand = collectPayload();
+
+        assertNoJavaScript("Collapse", collapse);
+        assertOnlyNodes("Collapse", collapse, layout);
+        Assert.assertTrue(collapse.keys().toString(),
+                collapsedProperties.containsAll(collapse.keys()));
+        assertNoJavaScript("Expand", expand);
+        assertOnlyNodes("Expand", expand, layout);
+        Assert.assertEquals(Set.of("primaryCollapsed"), expand.keys());
+        assertWithinBudget("Collapse", collapse, baselineCollapse,
+                MAX_PROPERTY_CHANGE_RELATIVE_TO_ELEMENT);
+        assertWithinBudget("Expand", expand, baselineExpand,
+                MAX_PROPERTY_CHANGE_RELATIVE_TO_ELEMENT);
+    }
+
+    @Test
+    public void initialRender_onlyLayoutAndPanes() {
+        collectPayload();
+        Div primary = new Div();
+        Div secondary = new Div();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(primary,
+                secondary);
+        layout.setPrimaryComponentCollapsible(true);
+        layout.setSplitterPosition(30);
+        ui.add(layout);
+
+        Payload payload = collectPayload();
+        ui.add(createContainer());
+        Payload baseline = collectPayload();
+
+        assertNoJavaScript("Initial render", payload);
+        assertOnlyNodes("Initial render", payload, ui, layout, primary,
+                secondary);
+        assertWithinBudget("Initial render", payload, baseline,
+                MAX_RENDER_RELATIVE_TO_CONTAINER);
+    }
+
+    @Test
+    public void paneSwap_secondaryNotResent() {
+        CollapsibleSplitLayout layout = attachLayout();
+        Component primary = layout.getPrimaryComponent();
+        Div replacement = new Div();
+
+        layout.addToPrimary(replacement);
+        Payload payload = collectPayload();
+        Div container = createContainer();
+        ui.add(container);
+        collectPayload();
+        container.getElement().setChild(0, new Div().getElement());
+        Payload baseline = collectPayload();
+
+        assertNoJavaScript("Pane swap", payload);
+        assertOnlyNodes("Pane swap", payload, layout, primary, replacement);
+        assertWithinBudget("Pane swap", payload, baseline,
+                MAX_PANE_SWAP_RELATIVE_TO_CONTAINER);
+    }
+
+    @Test
+    public void positionChange_onlyPositionProperties() {
+        CollapsibleSplitLayout layout = attachLayout();
+
+        layout.setSplitterPosition(30);
+        Payload payload = collectPayload();
+        Element element = attachElement();
+        element.setProperty("splitterPositionUnit", "%");
+        element.setProperty("splitterPosition", 30.0);
+        Payload baseline = collectPayload();
+
+        assertNoJavaScript("Position change", payload);
+        assertOnlyNodes("Position change", payload, layout);
+        Assert.assertTrue(payload.keys().toString(),
+                Set.of("splitterPosition", "splitterPositionUnit")
+                        .containsAll(payload.keys()));
+        assertWithinBudget("Position change", payload, baseline,
+                MAX_PROPERTY_CHANGE_RELATIVE_TO_ELEMENT);
+    }
+
+    @Test
+    public void reattach_notLargerThanInitialRender() {
+        CollapsibleSplitLayout layout = createLayout();
+        ui.add(layout);
+        Payload initial = collectPayload();
+
+        ui.remove(layout);
+        collectPayload();
+        ui.add(layout);
+        Payload reattach = collectPayload();
+        Div container = createContainer();
+        ui.add(container);
+        collectPayload();
+        ui.remove(container);
+        collectPayload();
+        ui.add(container);
+        Payload baseline = collectPayload();
+
+        assertNoJavaScript("Reattach", reattach);
+        assertOnlyNodes("Reattach", reattach, ui, layout,
+                layout.getPrimaryComponent(), layout.getSecondaryComponent());
+        Assert.assertTrue("Reattach sent " + reattach.bytes()
+                + " bytes, the initial render " + initial.bytes(),
+                reattach.bytes() <= initial.bytes());
+        assertWithinBudget("Reattach", reattach, baseline,
+                MAX_RENDER_RELATIVE_TO_CONTAINER);
+    }
+
+    @Test
+    public void retainedHeap_perInstance_withinBudget() {
+        // Loads the classes and shared state before measuring
+        attachLayout();
+        ui.add(createContainer());
+
+        long container = retainedHeapPerInstance(
+                CollapsibleSplitLayoutPayloadTest::createContainer);
+        long layout = retainedHeapPerInstance(
+                CollapsibleSplitLayoutPayloadTest::createLayout);
+
+        JsonObject sizes = Json.createObject();
+        sizes.put("layoutBytesPerInstance", layout);
+        sizes.put("containerBytesPerInstance", container);
+        reportedSizes.put("Retained heap", sizes);
+        Assert.assertTrue("Retained heap per instance was " + layout
+                + " bytes, a container with the same panes " + container
+                + " bytes",
+                layout <= container * MAX_HEAP_RELATIVE_TO_CONTAINER);
+    }
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        UI.setCurrent(ui);
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    @AfterClass
+    public static void writeReport() throws IOException {
+        if (Boolean.getBoolean(REPORT_PROPERTY)) {
+            Files.createDirectories(REPORT.getParent());
+            Files.write(REPORT,
+                    reportedSizes.toJson().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
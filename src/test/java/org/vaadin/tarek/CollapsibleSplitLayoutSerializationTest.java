@@ -0,0 +1,126 @@
+package org.vaadin.tarek;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Div;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+public class CollapsibleSplitLayoutSerializationTest {
+
+    /*
+     * A layout may be at most three times the size of a plain container with
+     * the same two panes, i.e. its own listeners and state may take twice the
+     * size of the container. The container is measured in the same run, so the
+     * budget follows the Flow version, and catches regressions such as
+     * per-instance copies of shared state. The measured sizes are written to
+     * the report when running with -Dbenchmark.reports=true.
+     */
+    private static final double MAX_SIZE_RELATIVE_TO_CONTAINER = 3;
+    private static final int INSTANCES = 20;
+    private static final String REPORT_PROPERTY = "benchmark.reports";
+    private static final Path REPORT = Paths.get("target",
+            "benchmark-reports", "serialized-size.json");
+
+    private static List<Div> createContainers(int count) {
+        List<Div> containers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            containers.add(new Div(new Div(), new Div()));
+        }
+        return containers;
+    }
+
+    private static List<CollapsibleSplitLayout> createLayouts(int count) {
+        List<CollapsibleSplitLayout> layouts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CollapsibleSplitLayout layout = new CollapsibleSplitLayout(
+                    new Div(), new Div());
+            layout.setPrimaryComponentCollapsible(true);
+            layout.setSplitterPosition(30);
+            layouts.add(layout);
+        }
+        return layouts;
+    }
+
+    @Test
+    public void deserializedLayout_listenersAndRegistrationsWork()
+            throws Exception {
+        CollapsibleSplitLayout layout = (CollapsibleSplitLayout) deserialize(
+                serialize(createLayouts(1).get(0)));
+
+        Assert.assertTrue(layout.getPrimaryComponent() instanceof Div);
+        Assert.assertTrue(layout.isPrimaryComponentCollapsible());
+        Assert.assertEquals(30, layout.getSplitterPosition(), 0);
+
+        layout.setSplitterPositionChangedThrottle(100);
+        layout.setSplitterPositionChangedDebounce(100);
+
+        AtomicInteger events = new AtomicInteger();
+        layout.addCollapseStateChangedListener(e -> events.incrementAndGet());
+        layout.setPrimaryCollapsed(true);
+        Assert.assertEquals(1, events.get());
+    }
+
+    private static Object deserialize(byte[] data)
+            throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(data))) {
+            return in.readObject();
+        }
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int perInstance(IntFunction<List<?>> factory)
+            throws IOException {
+        // Class descriptors and shared instances are written once per stream,
+        // so they are excluded by comparing the sizes of different counts
+        int single = serialize(new ArrayList<>(factory.apply(1))).length;
+        int many = serialize(new ArrayList<>(factory.apply(INSTANCES))).length;
+        return (many - single) / (INSTANCES - 1);
+    }
+
+    @Test
+    public void serializedSize_perInstance_withinBudget() throws IOException {
+        int layout = perInstance(
+                CollapsibleSplitLayoutSerializationTest::createLayouts);
+        int container = perInstance(
+                CollapsibleSplitLayoutSerializationTest::createContainers);
+
+        if (Boolean.getBoolean(REPORT_PROPERTY)) {
+            JsonObject report = Json.createObject();
+            report.put("layoutBytesPerInstance", layout);
+            report.put("containerBytesPerInstance", container);
+            Files.createDirectories(REPORT.getParent());
+            Files.write(REPORT,
+                    report.toJson().getBytes(StandardCharsets.UTF_8));
+        }
+
+        Assert.assertTrue("Serialized size per instance was " + layout
+                + " bytes, a container with the same panes " + container
+                + " bytes",
+                layout <= container * MAX_SIZE_RELATIVE_TO_CONTAINER);
+    }
+}
@@ -0,0 +1,756 @@
+package org.vaadin.tarek;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.vaadin.tarek.CollapsibleSplitLayout.CollapseStateChangedEvent;
+import org.vaadin.tarek.CollapsibleSplitLayout.ContentLoadFailedEvent;
+import org.vaadin.tarek.CollapsibleSplitLayout.Orientation;
+import org.vaadin.tarek.CollapsibleSplitLayout.Pane;
+import org.vaadin.tarek.CollapsibleSplitLayout.SplitterPositionChangedEvent;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.Unit;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.dom.DebouncePhase;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+public class CollapsibleSplitLayoutTest {
+
+    private UI ui;
+
+    private static JsonObject positionEventData(double position, double pixels,
+            DebouncePhase phase) {
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.position", position);
+        eventData.put("event.detail.pixels", pixels);
+        eventData.put(JsonConstants.EVENT_DATA_PHASE, phase.getIdentifier());
+        return eventData;
+    }
+
+    private static Object deserialize(byte[] data)
+            throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(data))) {
+            return in.readObject();
+        }
+    }
+
+    private static JsonArray getAutoCollapseRules(
+            CollapsibleSplitLayout layout) {
+        return (JsonArray) layout.getElement()
+                .getPropertyRaw("autoCollapseRules");
+    }
+
+    private static Component getSlotComponent(CollapsibleSplitLayout layout,
+            boolean primary) {
+        return layout.getElement().getChild(primary ? 0 : 1).getComponent()
+                .orElseThrow();
+    }
+
+    @Test
+    public void asyncPrimary_collapse_cancelsAndRestartsLoad() {
+        List<CompletableFuture<Component>> loads = new ArrayList<>();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        layout.setAsyncPrimary(() -> {
+            CompletableFuture<Component> load = new CompletableFuture<>();
+            loads.add(load);
+            return load;
+        }, null);
+        ui.add(layout);
+
+        layout.setPrimaryCollapsed(true);
+
+        Assert.assertEquals(1, loads.size());
+        Assert.assertTrue(loads.get(0).isCancelled());
+
+        layout.setPrimaryCollapsed(false);
+        Div loaded = new Div();
+        loads.get(1).complete(loaded);
+
+        Assert.assertEquals(2, loads.size());
+        Assert.assertSame(loaded, layout.getPrimaryComponent());
+    }
+
+    @Test
+    public void asyncPrimary_deserialized_loadedOnAttach() throws Exception {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        layout.setAsyncPrimary(
+                () -> CompletableFuture.completedFuture(new Span("loaded")),
+                new Div());
+
+        CollapsibleSplitLayout copy = (CollapsibleSplitLayout) deserialize(
+                serialize(layout));
+        ui.add(copy);
+
+        Assert.assertTrue(copy.getPrimaryComponent() instanceof Span);
+        Assert.assertSame(copy.getPrimaryComponent(),
+                getSlotComponent(copy, true));
+    }
+
+    @Test
+    public void asyncPrimary_failed_firesEventAndRetries() {
+        List<CompletableFuture<Component>> loads = new ArrayList<>();
+        Div placeholder = new Div();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        layout.setAsyncPrimary(() -> {
+            CompletableFuture<Component> load = new CompletableFuture<>();
+            loads.add(load);
+            return load;
+        }, placeholder);
+        List<ContentLoadFailedEvent> events = new ArrayList<>();
+        layout.addContentLoadFailedListener(events::add);
+        ui.add(layout);
+
+        IOException error = new IOException("Service unavailable");
+        loads.get(0).completeExceptionally(new CompletionException(error));
+
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(Pane.PRIMARY, events.get(0).getPane());
+        Assert.assertSame(error, events.get(0).getError());
+        Assert.assertSame(placeholder, layout.getPrimaryComponent());
+        Assert.assertSame(placeholder, getSlotComponent(layout, true));
+
+        layout.setPrimaryCollapsed(true);
+        layout.setPrimaryCollapsed(false);
+
+        Assert.assertEquals(2, loads.size());
+    }
+
+    @Test
+    public void asyncPrimary_placeholderShownUntilLoaded() {
+        CompletableFuture<Component> load = new CompletableFuture<>();
+        Div placeholder = new Div();
+        Div secondary = new Div();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        layout.addToSecondary(secondary);
+        layout.setAsyncPrimary(() -> load, placeholder);
+        ui.add(layout);
+
+        Assert.assertSame(placeholder, layout.getPrimaryComponent());
+        Assert.assertSame(placeholder, getSlotComponent(layout, true));
+
+        Div loaded = new Div();
+        load.complete(loaded);
+
+        Assert.assertSame(loaded, layout.getPrimaryComponent());
+        Assert.assertSame(loaded, getSlotComponent(layout, true));
+        Assert.assertFalse(placeholder.isAttached());
+        Assert.assertSame(secondary, getSlotComponent(layout, false));
+    }
+
+    @Test
+    public void asyncPrimary_replaced_cancelsLoad() {
+        CompletableFuture<Component> load = new CompletableFuture<>();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        layout.setAsyncPrimary(() -> load, null);
+        ui.add(layout);
+
+        Div replacement = new Div();
+        layout.addToPrimary(replacement);
+
+        Assert.assertTrue(load.isCancelled());
+        Assert.assertSame(replacement, layout.getPrimaryComponent());
+        Assert.assertSame(replacement, getSlotComponent(layout, true));
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void clearAutoCollapse_removesAllRules() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        layout.setAutoCollapseBelow(Orientation.HORIZONTAL, 600,
+                Pane.SECONDARY);
+        layout.setAutoCollapseBelow(Orientation.VERTICAL, 400, Pane.PRIMARY);
+        layout.setPrimaryCollapsed(true);
+
+        layout.clearAutoCollapse();
+
+        Assert.assertEquals(0, getAutoCollapseRules(layout).length());
+        Assert.assertTrue(layout.isPrimaryCollapsed());
+    }
+
+    @Test
+    public void collapseStateChanged_fromClient() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        ui.add(layout);
+        List<CollapseStateChangedEvent> events = new ArrayList<>();
+        layout.addCollapseStateChangedListener(events::add);
+
+        MockUI.setClientProperty(layout.getElement(), "secondaryCollapsed",
+                true);
+
+        Assert.assertEquals(1, events.size());
+        Assert.assertTrue(events.get(0).isFromClient());
+        Assert.assertEquals(Pane.SECONDARY, events.get(0).getPane());
+        Assert.assertTrue(events.get(0).isCollapsed());
+        Assert.assertTrue(layout.isSecondaryCollapsed());
+    }
+
+    @Test
+    public void collapseStateChanged_fromServer() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        ui.add(layout);
+        List<CollapseStateChangedEvent> events = new ArrayList<>();
+        layout.addCollapseStateChangedListener(events::add);
+
+        layout.setPrimaryCollapsed(true);
+        layout.setPrimaryCollapsed(true);
+
+        Assert.assertEquals(1, events.size());
+        Assert.assertFalse(events.get(0).isFromClient());
+        Assert.assertEquals(Pane.PRIMARY, events.get(0).getPane());
+        Assert.assertTrue(events.get(0).isCollapsed());
+
+        // Collapsing the other pane expands the primary pane first
+        layout.setSecondaryCollapsed(true);
+
+        Assert.assertEquals(3, events.size());
+        Assert.assertEquals(Pane.PRIMARY, events.get(1).getPane());
+        Assert.assertFalse(events.get(1).isCollapsed());
+        Assert.assertEquals(Pane.SECONDARY, events.get(2).getPane());
+        Assert.assertTrue(events.get(2).isCollapsed());
+        Assert.assertFalse(events.get(2).isFromClient());
+    }
+
+    @Test
+    public void detachOnCollapse_discard_recreatesLazyComponent() {
+        AtomicInteger calls = new AtomicInteger();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setLazyPrimary(() -> {
+            calls.incrementAndGet();
+            return new Div();
+        });
+        layout.setDetachOnCollapse(true);
+        layout.setPaneParkingStrategy(PaneParkingStrategy.discard());
+        ui.add(layout);
+        Component first = layout.getPrimaryComponent();
+
+        layout.setPrimaryCollapsed(true);
+
+        Assert.assertNull(layout.getPrimaryComponent());
+        Assert.assertFalse(first.isAttached());
+
+        layout.setPrimaryCollapsed(false);
+
+        Assert.assertEquals(2, calls.get());
+        Assert.assertNotSame(first, layout.getPrimaryComponent());
+        Assert.assertSame(layout.getPrimaryComponent(),
+                getSlotComponent(layout, true));
+    }
+
+    @Test
+    public void detachOnCollapse_discard_keepsComponentWithoutSupplier() {
+        Div primary = new Div();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(primary,
+                new Div());
+        layout.setDetachOnCollapse(true);
+        layout.setPaneParkingStrategy(PaneParkingStrategy.discard());
+        ui.add(layout);
+
+        layout.setPrimaryCollapsed(true);
+        Assert.assertFalse(primary.isAttached());
+        layout.setPrimaryCollapsed(false);
+
+        Assert.assertSame(primary, layout.getPrimaryComponent());
+        Assert.assertTrue(primary.isAttached());
+    }
+
+    @Test
+    public void detachOnCollapse_keep_reattachesSameInstance() {
+        Div primary = new Div();
+        Div secondary = new Div();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(primary,
+                secondary);
+        layout.setDetachOnCollapse(true);
+        ui.add(layout);
+
+        layout.setPrimaryCollapsed(true);
+
+        Assert.assertNull(layout.getPrimaryComponent());
+        Assert.assertFalse(primary.isAttached());
+        Assert.assertNotSame(primary, getSlotComponent(layout, true));
+        Assert.assertSame(secondary, getSlotComponent(layout, false));
+
+        layout.setPrimaryCollapsed(false);
+
+        Assert.assertSame(primary, layout.getPrimaryComponent());
+        Assert.assertSame(primary, getSlotComponent(layout, true));
+        Assert.assertTrue(primary.isAttached());
+    }
+
+    @Test
+    public void detachOnCollapse_serialize_reattachesCopy() {
+        Div secondary = new Div();
+        secondary.setText("Details");
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                secondary);
+        layout.setDetachOnCollapse(true);
+        layout.setPaneParkingStrategy(PaneParkingStrategy.serialize());
+        ui.add(layout);
+
+        layout.setSecondaryCollapsed(true);
+
+        Assert.assertNull(layout.getSecondaryComponent());
+        Assert.assertFalse(secondary.isAttached());
+
+        layout.setSecondaryCollapsed(false);
+
+        Component restored = layout.getSecondaryComponent();
+        Assert.assertNotSame(secondary, restored);
+        Assert.assertEquals("Details", ((Div) restored).getText());
+        Assert.assertSame(restored, getSlotComponent(layout, false));
+    }
+
+    @Test
+    public void getSplitterPosition_reflectsServerAndClient() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        ui.add(layout);
+
+        Assert.assertNull(layout.getSplitterPosition());
+        Assert.assertEquals(Unit.PERCENTAGE, layout.getSplitterPositionUnit());
+
+        layout.setSplitterPosition(240, Unit.PIXELS);
+        Assert.assertEquals(240, layout.getSplitterPosition(), 0);
+        Assert.assertEquals(Unit.PIXELS, layout.getSplitterPositionUnit());
+
+        MockUI.setClientProperty(layout.getElement(), "splitterPosition",
+                310.0);
+        Assert.assertEquals(310, layout.getSplitterPosition(), 0);
+        Assert.assertEquals(Unit.PIXELS, layout.getSplitterPositionUnit());
+    }
+
+    @Test
+    public void lazyPrimary_addToPrimaryDiscardsSupplier() {
+        AtomicInteger calls = new AtomicInteger();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setLazyPrimary(() -> {
+            calls.incrementAndGet();
+            return new Div();
+        });
+        Div primary = new Div();
+        layout.addToPrimary(primary);
+
+        ui.add(layout);
+
+        Assert.assertEquals(0, calls.get());
+        Assert.assertSame(primary, layout.getPrimaryComponent());
+        Assert.assertSame(primary, getSlotComponent(layout, true));
+    }
+
+    @Test
+    public void lazyPrimary_collapsed_createdOnExpand() {
+        AtomicInteger calls = new AtomicInteger();
+        Div primary = new Div();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setLazyPrimary(() -> {
+            calls.incrementAndGet();
+            return primary;
+        });
+        layout.setPrimaryCollapsed(true);
+        ui.add(layout);
+
+        Assert.assertEquals(0, calls.get());
+        Assert.assertNull(layout.getPrimaryComponent());
+        Assert.assertNotSame(primary, getSlotComponent(layout, true));
+
+        layout.setPrimaryCollapsed(false);
+
+        Assert.assertEquals(1, calls.get());
+        Assert.assertSame(primary, layout.getPrimaryComponent());
+        Assert.assertSame(primary, getSlotComponent(layout, true));
+    }
+
+    @Test
+    public void lazyPrimary_createdOnceOnAttach() {
+        AtomicInteger calls = new AtomicInteger();
+        Div primary = new Div();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setLazyPrimary(() -> {
+            calls.incrementAndGet();
+            return primary;
+        });
+
+        Assert.assertEquals(0, calls.get());
+        Assert.assertNull(layout.getPrimaryComponent());
+        Assert.assertEquals(2, layout.getElement().getChildCount());
+
+        ui.add(layout);
+
+        Assert.assertEquals(1, calls.get());
+        Assert.assertSame(primary, layout.getPrimaryComponent());
+        Assert.assertSame(primary, getSlotComponent(layout, true));
+
+        ui.remove(layout);
+        ui.add(layout);
+        layout.setPrimaryCollapsed(true);
+        layout.setPrimaryCollapsed(false);
+
+        Assert.assertEquals(1, calls.get());
+        Assert.assertSame(primary, getSlotComponent(layout, true));
+    }
+
+    @Test
+    public void lazySecondary_createdOnAttach() {
+        Div secondary = new Div();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        layout.addToPrimary(new Div());
+        layout.setLazySecondary(() -> secondary);
+
+        Assert.assertNull(layout.getSecondaryComponent());
+
+        ui.add(layout);
+
+        Assert.assertSame(secondary, layout.getSecondaryComponent());
+        Assert.assertSame(secondary, getSlotComponent(layout, false));
+        Assert.assertEquals("secondary",
+                secondary.getElement().getAttribute("slot"));
+    }
+
+    @Test
+    public void replacePrimary_keepsSecondaryAttached() {
+        Div secondary = new Div();
+        AtomicInteger detaches = new AtomicInteger();
+        secondary.addDetachListener(e -> detaches.incrementAndGet());
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                secondary);
+        ui.add(layout);
+
+        Div primary = new Div();
+        layout.addToPrimary(primary);
+
+        Assert.assertEquals(0, detaches.get());
+        Assert.assertEquals(2, layout.getElement().getChildCount());
+        Assert.assertSame(primary, getSlotComponent(layout, true));
+        Assert.assertSame(secondary, getSlotComponent(layout, false));
+        Assert.assertEquals("primary",
+                primary.getElement().getAttribute("slot"));
+    }
+
+    @Test
+    public void setAutoCollapseBelow_addsRulePerOrientationAndPane() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+
+        layout.setAutoCollapseBelow(Orientation.HORIZONTAL, 600,
+                Pane.SECONDARY);
+        layout.setAutoCollapseBelow(Orientation.VERTICAL, 400, Pane.PRIMARY);
+
+        JsonArray rules = getAutoCollapseRules(layout);
+        Assert.assertEquals(2, rules.length());
+        Assert.assertEquals("width", rules.getObject(0).getString("dimension"));
+        Assert.assertEquals(600, rules.getObject(0).getNumber("below"), 0);
+        Assert.assertEquals("secondary",
+                rules.getObject(0).getString("pane"));
+        Assert.assertEquals("height",
+                rules.getObject(1).getString("dimension"));
+        Assert.assertEquals(400, rules.getObject(1).getNumber("below"), 0);
+        Assert.assertEquals("primary", rules.getObject(1).getString("pane"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setAutoCollapseBelow_negative_throws() {
+        new CollapsibleSplitLayout().setAutoCollapseBelow(
+                Orientation.HORIZONTAL, -1, Pane.PRIMARY);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void setAutoCollapseBelow_nullPane_throws() {
+        new CollapsibleSplitLayout()
+                .setAutoCollapseBelow(Orientation.HORIZONTAL, 600, null);
+    }
+
+    @Test
+    public void setAutoCollapseBelow_sameOrientationAndPane_replacesRule() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        layout.setAutoCollapseBelow(Orientation.HORIZONTAL, 600,
+                Pane.SECONDARY);
+        layout.setAutoCollapseBelow(Orientation.HORIZONTAL, 500,
+                Pane.PRIMARY);
+
+        layout.setAutoCollapseBelow(Orientation.HORIZONTAL, 800,
+                Pane.SECONDARY);
+
+        JsonArray rules = getAutoCollapseRules(layout);
+        Assert.assertEquals(2, rules.length());
+        Assert.assertEquals("primary", rules.getObject(0).getString("pane"));
+        Assert.assertEquals("secondary",
+                rules.getObject(1).getString("pane"));
+        Assert.assertEquals(800, rules.getObject(1).getNumber("below"), 0);
+    }
+
+    @Test
+    public void setAutoCollapseBelow_zero_removesRule() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        layout.setAutoCollapseBelow(Orientation.HORIZONTAL, 600,
+                Pane.SECONDARY);
+        layout.setAutoCollapseBelow(Orientation.VERTICAL, 600,
+                Pane.SECONDARY);
+
+        layout.setAutoCollapseBelow(Orientation.HORIZONTAL, 0,
+                Pane.SECONDARY);
+
+        JsonArray rules = getAutoCollapseRules(layout);
+        Assert.assertEquals(1, rules.length());
+        Assert.assertEquals("height",
+                rules.getObject(0).getString("dimension"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setCollapseAnimationDuration_negative_throws() {
+        new CollapsibleSplitLayout().setCollapseAnimationDuration(-1);
+    }
+
+    @Test
+    public void setCollapseAnimationDuration_setsProperty() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        Assert.assertEquals(0, layout.getCollapseAnimationDuration());
+        Assert.assertEquals("ease", layout.getCollapseAnimationEasing());
+
+        layout.setCollapseAnimationDuration(250);
+        layout.setCollapseAnimationEasing("cubic-bezier(0.2, 0, 0, 1)");
+
+        Assert.assertEquals(250, layout.getElement()
+                .getProperty("collapseAnimationDuration", 0));
+        Assert.assertEquals("cubic-bezier(0.2, 0, 0, 1)",
+                layout.getElement().getProperty("collapseAnimationEasing"));
+        Assert.assertEquals(250, layout.getCollapseAnimationDuration());
+
+        layout.setCollapseAnimationDuration(0);
+        Assert.assertEquals(0, layout.getCollapseAnimationDuration());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void setCollapseAnimationEasing_null_throws() {
+        new CollapsibleSplitLayout().setCollapseAnimationEasing(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void setCollapseStrategy_null_throws() {
+        new CollapsibleSplitLayout().setCollapseStrategy(null);
+    }
+
+    @Test
+    public void setCollapseStrategy_setsProperty() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        Assert.assertEquals(CollapseStrategy.DISPLAY_NONE,
+                layout.getCollapseStrategy());
+
+        layout.setCollapseStrategy(CollapseStrategy.CONTENT_VISIBILITY);
+
+        Assert.assertEquals(CollapseStrategy.CONTENT_VISIBILITY,
+                layout.getCollapseStrategy());
+        Assert.assertEquals("content-visibility",
+                layout.getElement().getProperty("collapseStrategy"));
+
+        layout.setCollapseStrategy(CollapseStrategy.DISPLAY_NONE);
+
+        Assert.assertEquals("display-none",
+                layout.getElement().getProperty("collapseStrategy"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setMaxSize_belowMinSize_throws() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setMinSize(Pane.SECONDARY, 200);
+        layout.setMaxSize(Pane.SECONDARY, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setMinSize_aboveMaxSize_throws() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setMaxSize(Pane.PRIMARY, 100);
+        layout.setMinSize(Pane.PRIMARY, 200);
+    }
+
+    @Test
+    public void setMinSize_afterPixelPosition_positionKept() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setSplitterPosition(150, Unit.PIXELS);
+
+        // The limits take precedence over the position in the browser
+        layout.setMinSize(Pane.PRIMARY, 200);
+        layout.setMaxSize(Pane.SECONDARY, 100);
+
+        Assert.assertEquals(200, layout.getMinSize(Pane.PRIMARY));
+        Assert.assertEquals(100, layout.getMaxSize(Pane.SECONDARY));
+        Assert.assertEquals(150, layout.getSplitterPosition(), 0);
+    }
+
+    @Test
+    public void setMinSize_consistentLimits_set() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setSplitterPosition(250, Unit.PIXELS);
+        layout.setMinSize(Pane.PRIMARY, 200);
+        layout.setMaxSize(Pane.PRIMARY, 300);
+        layout.setMinSize(Pane.SECONDARY, 400);
+        // Percentages are not checked, the layout size is not known
+        layout.setSplitterPosition(10);
+        layout.setMaxSize(Pane.PRIMARY, 0);
+        layout.setMinSize(Pane.PRIMARY, 500);
+
+        Assert.assertEquals(500, layout.getMinSize(Pane.PRIMARY));
+        Assert.assertEquals(0, layout.getMaxSize(Pane.PRIMARY));
+        Assert.assertEquals(400, layout.getMinSize(Pane.SECONDARY));
+    }
+
+    @Test
+    public void setPixelPosition_afterMinSize_limitsKept() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setMinSize(Pane.PRIMARY, 200);
+        layout.setMaxSize(Pane.SECONDARY, 100);
+
+        layout.setSplitterPosition(150, Unit.PIXELS);
+
+        Assert.assertEquals(200, layout.getMinSize(Pane.PRIMARY));
+        Assert.assertEquals(100, layout.getMaxSize(Pane.SECONDARY));
+        Assert.assertEquals(150, layout.getSplitterPosition(), 0);
+        Assert.assertEquals(Unit.PIXELS, layout.getSplitterPositionUnit());
+    }
+
+    @Test
+    public void setPrimaryStyle_appliedToLazyComponent() {
+        Div primary = new Div();
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setLazyPrimary(() -> primary);
+        layout.setPrimaryStyle("min-width", "200px");
+
+        Assert.assertEquals("200px",
+                getSlotComponent(layout, true).getStyle().get("min-width"));
+
+        ui.add(layout);
+
+        Assert.assertSame(primary, getSlotComponent(layout, true));
+        Assert.assertEquals("200px", primary.getStyle().get("min-width"));
+    }
+
+    @Test
+    public void setSecondaryStyle_keptWhileParked() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setDetachOnCollapse(true);
+        layout.setPaneParkingStrategy(PaneParkingStrategy.serialize());
+        layout.setSecondaryStyle("overflow", "auto");
+        ui.add(layout);
+
+        layout.setSecondaryCollapsed(true);
+        layout.setSecondaryStyle("background", "white");
+        layout.setSecondaryCollapsed(false);
+
+        Div secondary = (Div) layout.getSecondaryComponent();
+        Assert.assertEquals("auto", secondary.getStyle().get("overflow"));
+        Assert.assertEquals("white", secondary.getStyle().get("background"));
+
+        layout.setSecondaryStyle("overflow", null);
+        Assert.assertNull(secondary.getStyle().get("overflow"));
+    }
+
+    @Test
+    public void setSplitterPosition_appliedWithoutJavaScript() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setSplitterPosition(30);
+        ui.add(layout);
+        layout.addToPrimary(new Div());
+        layout.setOrientation(Orientation.VERTICAL);
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+
+        Assert.assertTrue(ui.getInternals().dumpPendingJavaScriptInvocations()
+                .isEmpty());
+        Assert.assertEquals(30, layout.getElement()
+                .getProperty("splitterPosition", 0.0), 0);
+        Assert.assertEquals("%",
+                layout.getElement().getProperty("splitterPositionUnit"));
+        Assert.assertEquals(30, layout.getSplitterPosition(), 0);
+    }
+
+    @Test
+    public void splitterPositionChanged_debounced_firedOnTrailingEdge() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        ui.add(layout);
+        List<SplitterPositionChangedEvent> events = new ArrayList<>();
+        layout.addSplitterPositionChangedListener(events::add);
+
+        MockUI.fireClientEvent(layout.getElement(),
+                "splitter-position-changed",
+                positionEventData(25, 200, DebouncePhase.LEADING));
+        Assert.assertTrue(events.isEmpty());
+
+        MockUI.fireClientEvent(layout.getElement(),
+                "splitter-position-changed",
+                positionEventData(30, 240, DebouncePhase.TRAILING));
+        Assert.assertEquals(1, events.size());
+        Assert.assertTrue(events.get(0).isFromClient());
+        Assert.assertEquals(30, events.get(0).getPosition(), 0);
+        Assert.assertEquals(240, events.get(0).getPositionInPixels(), 0);
+    }
+
+    @Test
+    public void splitterPositionChanged_throttled_firedOnLeadingEdge() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setSplitterPositionChangedThrottle(100);
+        ui.add(layout);
+        List<SplitterPositionChangedEvent> events = new ArrayList<>();
+        layout.addSplitterPositionChangedListener(events::add);
+
+        MockUI.fireClientEvent(layout.getElement(),
+                "splitter-position-changed",
+                positionEventData(25, 200, DebouncePhase.LEADING));
+        MockUI.fireClientEvent(layout.getElement(),
+                "splitter-position-changed",
+                positionEventData(30, 240, DebouncePhase.TRAILING));
+
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(25, events.get(0).getPosition(), 0);
+    }
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        UI.setCurrent(ui);
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+}
@@ -0,0 +1,204 @@
+package org.vaadin.tarek;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.interactions.Actions;
+
+import com.vaadin.testbench.TestBenchElement;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Measures dragging the splitter and toggling the collapsed state of the
+ * outermost of 1 to {@value BenchmarkView#MAX_DEPTH} nested layouts in
+ * headless Chrome. Excluded from the {@code it} profile by default, run with
+ * {@code mvn verify -Pit -Dit.test=DragAndCollapseBenchmarkIT}.
+ * <p>
+ * Frame times and long tasks are recorded with {@code requestAnimationFrame}
+ * and a {@code PerformanceObserver}. The layout and style recalculation counts
+ * and durations come from the {@code Performance} domain of the Chrome
+ * DevTools Protocol, so they are missing when running on a hub. A layout
+ * count above the frame count means that layouts were forced by scripts.
+ * <p>
+ * The results are written to
+ * {@code target/benchmark-reports/drag-and-collapse.json}.
+ */
+public class DragAndCollapseBenchmarkIT extends AbstractViewTest {
+
+    private static final int[] DEPTHS = { 1, 2, 4, 8, 16, 32,
+            BenchmarkView.MAX_DEPTH };
+    private static final int DRAG_STEPS = 30;
+    private static final int DRAG_STEP_PIXELS = 5;
+    private static final int TOGGLE_ROUNDS = 10;
+    private static final Duration FRAME = Duration.ofMillis(16);
+    private static final Path REPORT = Paths.get("target",
+            "benchmark-reports", "drag-and-collapse.json");
+    private static final List<String> CDP_METRICS = Arrays.asList(
+            "LayoutCount", "RecalcStyleCount", "LayoutDuration",
+            "RecalcStyleDuration", "ScriptDuration", "TaskDuration");
+
+    private static final String START_SCRIPT = """
+            const benchmark = { frames: [], longTasks: [], running: true };
+            benchmark.observer = new PerformanceObserver((list) =>
+                list.getEntries().forEach((entry) => benchmark.longTasks.push(entry.duration)));
+            benchmark.observer.observe({ type: 'longtask' });
+            const frame = (time) => {
+              if (benchmark.running) {
+                benchmark.frames.push(time);
+                requestAnimationFrame(frame);
+              }
+            };
+            requestAnimationFrame(frame);
+            window.__benchmark = benchmark;
+            """;
+
+    private static final String STOP_SCRIPT = """
+            const done = arguments[arguments.length - 1];
+            const benchmark = window.__benchmark;
+            // Waits for the frames requested by the last pointer event
+            requestAnimationFrame(() => requestAnimationFrame(() => {
+              benchmark.running = false;
+              benchmark.observer.takeRecords().forEach((entry) => benchmark.longTasks.push(entry.duration));
+              benchmark.observer.disconnect();
+              const frameTimes = benchmark.frames.slice(1).map((time, i) => time - benchmark.frames[i]);
+              done(JSON.stringify({ frameTimes: frameTimes, longTasks: benchmark.longTasks }));
+            }));
+            """;
+
+    public DragAndCollapseBenchmarkIT() {
+        super("benchmark/1");
+    }
+
+    @Test
+    public void dragAndCollapse() throws IOException {
+        getDriver().manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
+        JsonArray results = Json.createArray();
+        for (int depth : DEPTHS) {
+            getDriver().get(getURL("benchmark/" + depth));
+            waitUntil(driver -> $("collapsible-vaadin-split-layout").all()
+                    .size() == depth);
+            TestBenchElement layout = $("collapsible-vaadin-split-layout")
+                    .first();
+
+            JsonObject result = Json.createObject();
+            result.put("depth", depth);
+            result.put("drag", measure(() -> drag(layout)));
+            result.put("collapse", measure(() -> toggle(layout)));
+            results.set(results.length(), result);
+        }
+
+        JsonObject report = Json.createObject();
+        report.put("timestamp", Instant.now().toString());
+        report.put("userAgent", (String) ((JavascriptExecutor) getDriver())
+                .executeScript("return navigator.userAgent"));
+        report.put("results", results);
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, report.toJson().getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals(DEPTHS.length, results.length());
+    }
+
+    private void drag(TestBenchElement layout) {
+        TestBenchElement splitter = layout.$(TestBenchElement.class)
+                .id("splitter");
+        Actions actions = new Actions(getDriver()).clickAndHold(splitter);
+        for (int step = 0; step < DRAG_STEPS * 2; step++) {
+            int offset = step < DRAG_STEPS ? DRAG_STEP_PIXELS
+                    : -DRAG_STEP_PIXELS;
+            actions.moveByOffset(offset, offset).pause(FRAME);
+        }
+        actions.release().perform();
+    }
+
+    /**
+     * Reads the metrics of the {@code Performance} domain of the Chrome
+     * DevTools Protocol, or nothing if the driver does not support it.
+     */
+    static Map<String, Double> getCdpMetrics(WebDriver driver) {
+        if (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        Map<String, Double> metrics = new HashMap<>();
+        if (!(driver instanceof HasCdp)) {
+            return metrics;
+        }
+        HasCdp cdp = (HasCdp) driver;
+        cdp.executeCdpCommand("Performance.enable", new HashMap<>());
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> values = (List<Map<String, Object>>) cdp
+                .executeCdpCommand("Performance.getMetrics", new HashMap<>())
+                .get("metrics");
+        values.forEach(metric -> metrics.put((String) metric.get("name"),
+                ((Number) metric.get("value")).doubleValue()));
+        return metrics;
+    }
+
+    private JsonObject measure(Runnable action) {
+        JavascriptExecutor executor = (JavascriptExecutor) getDriver();
+        Map<String, Double> before = getCdpMetrics(getDriver());
+        executor.executeScript(START_SCRIPT);
+        action.run();
+        JsonObject recorded = Json.parse(
+                (String) executor.executeAsyncScript(STOP_SCRIPT));
+        Map<String, Double> after = getCdpMetrics(getDriver());
+
+        double[] frameTimes = toArray(recorded.getArray("frameTimes"));
+        double[] longTasks = toArray(recorded.getArray("longTasks"));
+        Arrays.sort(frameTimes);
+
+        JsonObject result = Json.createObject();
+        result.put("frameCount", frameTimes.length);
+        result.put("meanFrameTime",
+                Arrays.stream(frameTimes).average().orElse(0));
+        result.put("p95FrameTime", frameTimes.length == 0 ? 0
+                : frameTimes[(int) Math.ceil(frameTimes.length * 0.95) - 1]);
+        result.put("maxFrameTime",
+                Arrays.stream(frameTimes).max().orElse(0));
+        result.put("longTaskCount", longTasks.length);
+        result.put("longTaskTime", Arrays.stream(longTasks).sum());
+        CDP_METRICS.stream().filter(
+                name -> before.containsKey(name) && after.containsKey(name))
+                .forEach(name -> result.put(name,
+                        after.get(name) - before.get(name)));
+        return result;
+    }
+
+    private void toggle(TestBenchElement layout) {
+        TestBenchElement collapse = layout.$(TestBenchElement.class)
+                .attribute("part", "toggle-left").first();
+        TestBenchElement expand = layout.$(TestBenchElement.class)
+                .attribute("part", "toggle-right").first();
+        Actions actions = new Actions(getDriver());
+        for (int round = 0; round < TOGGLE_ROUNDS; round++) {
+            actions.click(collapse).pause(FRAME.multipliedBy(5)).click(expand)
+                    .pause(FRAME.multipliedBy(5));
+        }
+        actions.perform();
+    }
+
+    private static double[] toArray(JsonArray array) {
+        double[] values = new double[array.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.getNumber(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,36 @@
+package org.vaadin.tarek;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.router.BeforeEvent;
+import com.vaadin.flow.router.HasUrlParameter;
+import com.vaadin.flow.router.OptionalParameter;
+import com.vaadin.flow.router.Route;
+
+/**
+ * View for {@link StyleSharingBenchmarkIT}, with the number of sibling layouts
+ * given as the URL parameter, e.g. {@code benchmark-instances/500}.
+ */
+@Route("benchmark-instances")
+public class InstancesBenchmarkView extends Div
+        implements HasUrlParameter<Integer> {
+
+    static final int MAX_INSTANCES = 1000;
+
+    @Override
+    public void setParameter(BeforeEvent event,
+            @OptionalParameter Integer count) {
+        int instances = Math.max(0,
+                Math.min(count == null ? 0 : count, MAX_INSTANCES));
+
+        removeAll();
+        for (int i = 0; i < instances; i++) {
+            CollapsibleSplitLayout layout = new CollapsibleSplitLayout(
+                    new Span("Primary " + i), new Span("Secondary " + i));
+            layout.setPrimaryComponentCollapsible(true);
+            layout.setWidth("300px");
+            layout.setHeight("40px");
+            add(layout);
+        }
+    }
+}
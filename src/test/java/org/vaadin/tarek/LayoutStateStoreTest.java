@@ -0,0 +1,251 @@
+package org.vaadin.tarek;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.Unit;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.dom.DebouncePhase;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+public class LayoutStateStoreTest {
+
+    private static final LayoutState STATE = new LayoutState(250.0,
+            Unit.PIXELS, false, true);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Looked up by the layouts, like a store shared by the application
+    private static LayoutStateStore sharedStore;
+
+    private UI ui;
+
+    private static CollapsibleSplitLayout attachLayout(
+            LayoutStateStore store) {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setId("navigation");
+        layout.setLayoutStateStore(store);
+        UI.getCurrent().add(layout);
+        return layout;
+    }
+
+    @Test
+    public void attach_restoresSavedState() {
+        InMemoryLayoutStateStore store = new InMemoryLayoutStateStore(10);
+        store.save("navigation", STATE);
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setId("navigation");
+        layout.setLayoutStateStore(store);
+
+        ui.add(layout);
+
+        Assert.assertEquals(250, layout.getSplitterPosition(), 0);
+        Assert.assertEquals(Unit.PIXELS, layout.getSplitterPositionUnit());
+        Assert.assertFalse(layout.isPrimaryCollapsed());
+        Assert.assertTrue(layout.isSecondaryCollapsed());
+    }
+
+    @Test
+    public void collapsedByUser_savesState() {
+        InMemoryLayoutStateStore store = new InMemoryLayoutStateStore(10);
+        CollapsibleSplitLayout layout = attachLayout(store);
+        layout.setSecondaryCollapsed(true);
+        Assert.assertNull(store.load("navigation"));
+
+        MockUI.setClientProperty(layout.getElement(), "primaryCollapsed",
+                true);
+
+        LayoutState state = store.load("navigation");
+        Assert.assertNotNull(state);
+        Assert.assertTrue(state.isPrimaryCollapsed());
+    }
+
+    @Test
+    public void deserializedLayout_storeLookedUpAndStateSaved()
+            throws Exception {
+        sharedStore = new InMemoryLayoutStateStore(10);
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout(new Div(),
+                new Div());
+        layout.setId("navigation");
+        layout.setLayoutStateStore(() -> sharedStore);
+
+        CollapsibleSplitLayout deserialized = serializeAndDeserialize(layout);
+        ui.add(deserialized);
+        MockUI.setClientProperty(deserialized.getElement(),
+                "primaryCollapsed", true);
+
+        Assert.assertSame(sharedStore, deserialized.getLayoutStateStore());
+        LayoutState state = sharedStore.load("navigation");
+        Assert.assertNotNull(state);
+        Assert.assertTrue(state.isPrimaryCollapsed());
+    }
+
+    @Test
+    public void fileStore_batchesWritesInBackground() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("layouts.properties");
+        try (FileLayoutStateStore store = new FileLayoutStateStore(file,
+                Duration.ofMillis(200))) {
+            store.save("navigation", STATE);
+            store.save("details", STATE);
+            Assert.assertFalse(Files.exists(file));
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!Files.exists(file)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(Files.exists(file));
+
+            // Both states are written by the first write
+            try (FileLayoutStateStore written = new FileLayoutStateStore(
+                    file)) {
+                Assert.assertEquals(STATE, written.load("navigation"));
+                Assert.assertEquals(STATE, written.load("details"));
+            }
+        }
+    }
+
+    @Test
+    public void fileStore_concurrentFlushes_writeLatestStates()
+            throws Exception {
+        Path file = folder.getRoot().toPath().resolve("layouts.properties");
+        List<Thread> threads = new ArrayList<>();
+        try (FileLayoutStateStore store = new FileLayoutStateStore(file,
+                Duration.ofHours(1))) {
+            for (int i = 0; i < 8; i++) {
+                String layoutId = "layout-" + i;
+                threads.add(new Thread(() -> {
+                    store.save(layoutId, STATE);
+                    store.flush();
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // Read before closing, which would write the states again
+            try (FileLayoutStateStore copy = new FileLayoutStateStore(file)) {
+                for (int i = 0; i < threads.size(); i++) {
+                    Assert.assertEquals(STATE, copy.load("layout-" + i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fileStore_saveAfterClose_keptInMemoryOnly() {
+        Path file = folder.getRoot().toPath().resolve("layouts.properties");
+        FileLayoutStateStore store = new FileLayoutStateStore(file,
+                Duration.ZERO);
+        store.close();
+
+        store.save("navigation", STATE);
+
+        Assert.assertEquals(STATE, store.load("navigation"));
+        try (FileLayoutStateStore copy = new FileLayoutStateStore(file)) {
+            Assert.assertNull(copy.load("navigation"));
+        }
+    }
+
+    @Test
+    public void fileStore_writesAndReadsStates() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("layouts.properties");
+        try (FileLayoutStateStore store = new FileLayoutStateStore(file,
+                Duration.ofHours(1))) {
+            store.save("navigation", STATE);
+            store.save("details", new LayoutState(null, Unit.PERCENTAGE,
+                    true, false));
+            Assert.assertFalse(Files.exists(file));
+        }
+
+        try (FileLayoutStateStore store = new FileLayoutStateStore(file)) {
+            Assert.assertEquals(STATE, store.load("navigation"));
+            Assert.assertEquals(
+                    new LayoutState(null, Unit.PERCENTAGE, true, false),
+                    store.load("details"));
+            Assert.assertNull(store.load("missing"));
+        }
+    }
+
+    @Test
+    public void inMemoryStore_evictsLeastRecentlyUsed() {
+        InMemoryLayoutStateStore store = new InMemoryLayoutStateStore(2);
+        store.save("first", STATE);
+        store.save("second", STATE);
+        store.load("first");
+        store.save("third", STATE);
+
+        Assert.assertEquals(STATE, store.load("first"));
+        Assert.assertNull(store.load("second"));
+        Assert.assertEquals(STATE, store.load("third"));
+    }
+
+    private static CollapsibleSplitLayout serializeAndDeserialize(
+            CollapsibleSplitLayout layout) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(layout);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (CollapsibleSplitLayout) in.readObject();
+        }
+    }
+
+    @Test
+    public void splitterMovedByUser_savesState() {
+        InMemoryLayoutStateStore store = new InMemoryLayoutStateStore(10);
+        CollapsibleSplitLayout layout = attachLayout(store);
+        layout.setSplitterPosition(30);
+        Assert.assertNull(store.load("navigation"));
+
+        MockUI.setClientProperty(layout.getElement(), "splitterPosition",
+                40.0);
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.position", 40);
+        eventData.put("event.detail.pixels", 320);
+        eventData.put(JsonConstants.EVENT_DATA_PHASE,
+                DebouncePhase.TRAILING.getIdentifier());
+        MockUI.fireClientEvent(layout.getElement(),
+                "splitter-position-changed", eventData);
+
+        Assert.assertEquals(
+                new LayoutState(40.0, Unit.PERCENTAGE, false, false),
+                store.load("navigation"));
+    }
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        UI.setCurrent(ui);
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+        sharedStore = null;
+    }
+}
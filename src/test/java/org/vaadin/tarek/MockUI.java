@@ -0,0 +1,76 @@
+package org.vaadin.tarek;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+import com.vaadin.flow.internal.nodefeature.PropertyChangeDeniedException;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+
+import elemental.json.JsonObject;
+
+/**
+ * A UI with a mocked session, for testing the server-side API without a
+ * servlet container. The session is always locked by the current thread, so
+ * {@link #access(Command)} runs the command right away.
+ * <p>
+ * Tests should set the UI as the current UI and reset it when done. The
+ * static helpers simulate the messages sent by the browser.
+ */
+public class MockUI extends UI {
+
+    public MockUI() {
+        getInternals().setSession(createSession());
+    }
+
+    /**
+     * Fires a DOM event of the element as if it was sent by the browser. The
+     * listeners are filtered by the debounce phase in the event data, which is
+     * the leading phase if it is missing.
+     */
+    static void fireClientEvent(Element element, String eventType,
+            JsonObject eventData) {
+        element.getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(element, eventType, eventData));
+    }
+
+    /**
+     * Updates a synchronized property of the element as if it was changed in
+     * the browser.
+     */
+    static void setClientProperty(Element element, String name,
+            Serializable value) {
+        try {
+            element.getNode().getFeature(ElementPropertyMap.class)
+                    .deferredUpdateFromClient(name, value).run();
+        } catch (PropertyChangeDeniedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static VaadinSession createSession() {
+        DeploymentConfiguration configuration = Mockito
+                .mock(DeploymentConfiguration.class);
+        VaadinService service = Mockito.mock(VaadinService.class);
+        Mockito.when(service.getDeploymentConfiguration())
+                .thenReturn(configuration);
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.hasLock()).thenReturn(true);
+        Mockito.when(session.getService()).thenReturn(service);
+        Mockito.when(session.getConfiguration()).thenReturn(configuration);
+        Mockito.when(session.access(Mockito.any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, Command.class).execute();
+            return CompletableFuture.completedFuture(null);
+        });
+        return session;
+    }
+}
@@ -0,0 +1,41 @@
+package org.vaadin.tarek;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.router.Route;
+
+/**
+ * View for {@link CollapsibleMultiSplitLayoutIT}, with three panes of which
+ * the outer ones are collapsible.
+ */
+@Route("multi")
+public class MultiSplitView extends Div {
+
+    public MultiSplitView() {
+        CollapsibleMultiSplitLayout layout = new CollapsibleMultiSplitLayout(
+                new Div(new H2("Navigation")), new Div(new H2("Editor")),
+                new Div(new H2("Properties")));
+        layout.setPaneSizes(20, 60, 20);
+        layout.setPaneCollapsible(0, true);
+        layout.setPaneCollapsible(2, true);
+        layout.setWidthFull();
+        layout.setHeight("400px");
+
+        Span sizes = new Span(format(layout.getPaneSizes()));
+        sizes.setId("sizes");
+        layout.addPaneSizesChangedListener(
+                e -> sizes.setText(format(e.getPaneSizes())));
+
+        add(layout, sizes);
+        setWidth("1000px");
+    }
+
+    private static String format(double[] sizes) {
+        return Arrays.stream(sizes).mapToObj(size -> String.valueOf(
+                Math.round(size))).collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,54 @@
+package org.vaadin.tarek;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+
+public class PaneParkingStrategyTest {
+
+    @Test
+    public void serialize_restoresCopy() {
+        Div component = new Div();
+        component.setText("Details");
+        component.setId("details");
+
+        Component restored = PaneParkingStrategy.serialize()
+                .park(component, null).get();
+
+        Assert.assertNotSame(component, restored);
+        Assert.assertTrue(restored instanceof Div);
+        Assert.assertEquals("Details", ((Div) restored).getText());
+        Assert.assertEquals("details", restored.getId().orElse(null));
+    }
+
+    @Test
+    public void serialize_resolvesClassesWithContextClassLoader() {
+        Set<String> requested = new HashSet<>();
+        ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve)
+                    throws ClassNotFoundException {
+                requested.add(name);
+                return super.loadClass(name, resolve);
+            }
+        };
+        Component restored;
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            restored = PaneParkingStrategy.serialize().park(new Div(), null)
+                    .get();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+
+        Assert.assertTrue(restored instanceof Div);
+        Assert.assertTrue(requested.contains(Div.class.getName()));
+    }
+}
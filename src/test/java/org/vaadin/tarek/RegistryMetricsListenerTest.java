@@ -0,0 +1,137 @@
+package org.vaadin.tarek;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+public class RegistryMetricsListenerTest {
+
+    private UI ui;
+    private List<String> metrics;
+    private CollapsibleSplitLayout layout;
+
+    private static JsonObject dragEndEventData(int sequence, int latency) {
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.sequence", sequence);
+        eventData.put("event.detail.latency", latency);
+        return eventData;
+    }
+
+    private static String format(String name, String... tags) {
+        StringBuilder metric = new StringBuilder(name);
+        for (int i = 0; i + 1 < tags.length; i += 2) {
+            metric.append(' ').append(tags[i]).append('=').append(tags[i + 1]);
+        }
+        return metric.toString();
+    }
+
+    private long count(String metric) {
+        return metrics.stream().filter(metric::equals).count();
+    }
+
+    @Test
+    public void collapseAndExpand_countedWithOrigin() {
+        MockUI.setClientProperty(layout.getElement(), "primaryCollapsed",
+                true);
+        layout.setPrimaryCollapsed(false);
+
+        Assert.assertEquals(1, count(RegistryMetricsListener.CLIENT_EVENTS
+                + " view= layout=navigation event=primary-collapsed-changed"));
+        Assert.assertEquals(1,
+                count(RegistryMetricsListener.COLLAPSE_STATE_CHANGES
+                        + " view= layout=navigation pane=primary"
+                        + " action=collapse origin=client"));
+        Assert.assertEquals(1,
+                count(RegistryMetricsListener.COLLAPSE_STATE_CHANGES
+                        + " view= layout=navigation pane=primary"
+                        + " action=expand origin=server"));
+    }
+
+    @Test
+    public void dragEnd_countedAndLatencyOfPreviousDragRecorded() {
+        MockUI.fireClientEvent(layout.getElement(), "splitter-dragend",
+                dragEndEventData(1, -1));
+
+        Assert.assertEquals(1, count(RegistryMetricsListener.CLIENT_EVENTS
+                + " view= layout=navigation event=splitter-dragend"));
+        Assert.assertTrue(metrics.stream().noneMatch(
+                m -> m.startsWith(RegistryMetricsListener.DRAG_END_LATENCY)));
+        Assert.assertEquals(1,
+                layout.getElement().getProperty("dragEndAck", 0.0), 0);
+
+        MockUI.fireClientEvent(layout.getElement(), "splitter-dragend",
+                dragEndEventData(2, 35));
+
+        Assert.assertEquals(2, count(RegistryMetricsListener.CLIENT_EVENTS
+                + " view= layout=navigation event=splitter-dragend"));
+        Assert.assertEquals(1, count(RegistryMetricsListener.DRAG_END_LATENCY
+                + " 35ms view= layout=navigation"));
+        Assert.assertEquals(2,
+                layout.getElement().getProperty("dragEndAck", 0.0), 0);
+    }
+
+    @Test
+    public void elementUpdates_countedByName() {
+        layout.setSplitterPosition(30);
+        layout.setPrimaryStyle("background", "red");
+        layout.addToSecondary(new Div());
+
+        Assert.assertEquals(1, count(RegistryMetricsListener.ELEMENT_UPDATES
+                + " view= layout=navigation name=splitterPosition"));
+        Assert.assertEquals(1, count(RegistryMetricsListener.ELEMENT_UPDATES
+                + " view= layout=navigation name=style"));
+        Assert.assertTrue(count(RegistryMetricsListener.ELEMENT_UPDATES
+                + " view= layout=navigation name=children") >= 1);
+    }
+
+    @Test
+    public void removeListener_stopsCounting() {
+        layout.setMetricsListener(null);
+        metrics.clear();
+
+        layout.setSplitterPosition(30);
+        MockUI.fireClientEvent(layout.getElement(), "splitter-dragend",
+                dragEndEventData(1, 20));
+
+        Assert.assertEquals(0, metrics.size());
+        Assert.assertFalse(layout.getElement().hasProperty("dragEndAck"));
+    }
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        UI.setCurrent(ui);
+        metrics = new ArrayList<>();
+        layout = new CollapsibleSplitLayout(new Div(), new Div());
+        layout.setId("navigation");
+        ui.add(layout);
+        layout.setMetricsListener(new RegistryMetricsListener(
+                new RegistryMetricsListener.Registry() {
+                    @Override
+                    public void increment(String name, String... tags) {
+                        metrics.add(format(name, tags));
+                    }
+
+                    @Override
+                    public void record(String name, long millis,
+                            String... tags) {
+                        metrics.add(format(name + " " + millis + "ms", tags));
+                    }
+                }));
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+}
@@ -0,0 +1,218 @@
+package org.vaadin.tarek;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.Unit;
+
+import elemental.json.Json;
+
+public class SplitterGroupTest {
+
+    private UI ui;
+
+    @Test
+    public void add_anotherGroup_movesLayout() {
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+        ui.add(first, second);
+        SplitterGroup group = SplitterGroup.link(first, second);
+        SplitterGroup other = new SplitterGroup();
+
+        other.add(first);
+
+        Assert.assertSame(other, first.getSplitterGroup());
+        Assert.assertEquals(Arrays.asList(second), group.getLayouts());
+        Assert.assertEquals(Arrays.asList(first), other.getLayouts());
+        Assert.assertEquals(other.getName(),
+                first.getElement().getProperty("splitterGroup"));
+    }
+
+    @Test
+    public void detach_layoutDroppedAndTrackedAgainOnAttach() {
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+        SplitterGroup group = SplitterGroup.link(first, second);
+        ui.add(first, second);
+
+        ui.remove(first);
+
+        Assert.assertEquals(Arrays.asList(second), group.getLayouts());
+        Assert.assertSame(group, first.getSplitterGroup());
+
+        ui.add(first);
+
+        Assert.assertEquals(Arrays.asList(second, first), group.getLayouts());
+    }
+
+    @Test
+    public void link_addsLayouts() {
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+        ui.add(first, second);
+
+        SplitterGroup group = SplitterGroup.link(first, second);
+
+        Assert.assertEquals(Arrays.asList(first, second), group.getLayouts());
+        Assert.assertSame(group, first.getSplitterGroup());
+        Assert.assertEquals(group.getName(),
+                second.getElement().getProperty("splitterGroup"));
+    }
+
+    @Test
+    public void link_detachedLayouts_trackedOnAttach() {
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+
+        SplitterGroup group = SplitterGroup.link(first, second);
+
+        Assert.assertEquals(Collections.emptyList(), group.getLayouts());
+        Assert.assertSame(group, first.getSplitterGroup());
+
+        ui.add(second, first);
+
+        Assert.assertEquals(Arrays.asList(second, first), group.getLayouts());
+    }
+
+    @Test
+    public void remove_clearsGroupOfLayout() {
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+        ui.add(first, second);
+        SplitterGroup group = SplitterGroup.link(first, second);
+
+        group.remove(first);
+        new SplitterGroup().remove(second);
+
+        Assert.assertEquals(Arrays.asList(second), group.getLayouts());
+        Assert.assertNull(first.getSplitterGroup());
+        Assert.assertFalse(first.getElement().hasProperty("splitterGroup"));
+        Assert.assertSame(group, second.getSplitterGroup());
+    }
+
+    @Test
+    public void remove_detachedLayout_clearsGroupOfLayout() {
+        CollapsibleSplitLayout layout = new CollapsibleSplitLayout();
+        SplitterGroup group = SplitterGroup.link(layout);
+        ui.add(layout);
+        ui.remove(layout);
+
+        group.remove(layout);
+        ui.add(layout);
+
+        Assert.assertNull(layout.getSplitterGroup());
+        Assert.assertEquals(Collections.emptyList(), group.getLayouts());
+    }
+
+    @Test
+    public void setSplitterPosition_appliedToAllLayouts() {
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+        ui.add(first, second);
+        SplitterGroup group = SplitterGroup.link(first, second);
+
+        group.setSplitterPosition(200, Unit.PIXELS);
+
+        Assert.assertEquals(200, first.getSplitterPosition(), 0);
+        Assert.assertEquals(Unit.PIXELS, second.getSplitterPositionUnit());
+        Assert.assertEquals(200, second.getSplitterPosition(), 0);
+    }
+
+    @Test
+    public void setSplitterPosition_detachedLayout_appliedOnAttach() {
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+        ui.add(first, second);
+        SplitterGroup group = SplitterGroup.link(first, second);
+        ui.remove(second);
+
+        group.setSplitterPosition(200, Unit.PIXELS);
+
+        Assert.assertNull(second.getSplitterPosition());
+
+        ui.add(second);
+
+        Assert.assertEquals(200, second.getSplitterPosition(), 0);
+        Assert.assertEquals(Unit.PIXELS, second.getSplitterPositionUnit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setSplitterPosition_unsupportedUnit_throws() {
+        SplitterGroup.link(new CollapsibleSplitLayout()).setSplitterPosition(10,
+                Unit.EM);
+    }
+
+    @Test
+    public void splitterGroupSync_appliesPositionToGroupAndSavesState() {
+        InMemoryLayoutStateStore store = new InMemoryLayoutStateStore(10);
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+        first.setId("first");
+        second.setId("second");
+        first.setLayoutStateStore(store);
+        second.setLayoutStateStore(store);
+        ui.add(first, second);
+        SplitterGroup.link(first, second);
+
+        MockUI.setClientProperty(first.getElement(), "splitterPosition",
+                40.0);
+        MockUI.fireClientEvent(first.getElement(), "splitter-group-sync",
+                Json.createObject());
+
+        Assert.assertEquals(40, second.getSplitterPosition(), 0);
+        LayoutState state = new LayoutState(40.0, Unit.PERCENTAGE, false,
+                false);
+        Assert.assertEquals(state, store.load("first"));
+        Assert.assertEquals(state, store.load("second"));
+    }
+
+    @Test
+    public void unlink_detachedLayout_notTrackedOnAttach() {
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+        ui.add(first, second);
+        SplitterGroup group = SplitterGroup.link(first, second);
+        ui.remove(second);
+
+        group.unlink();
+
+        Assert.assertNull(second.getSplitterGroup());
+
+        ui.add(second);
+
+        Assert.assertEquals(Collections.emptyList(), group.getLayouts());
+        Assert.assertNull(second.getSplitterGroup());
+        Assert.assertFalse(second.getElement().hasProperty("splitterGroup"));
+    }
+
+    @Test
+    public void unlink_removesAllLayouts() {
+        CollapsibleSplitLayout first = new CollapsibleSplitLayout();
+        CollapsibleSplitLayout second = new CollapsibleSplitLayout();
+        ui.add(first, second);
+        SplitterGroup group = SplitterGroup.link(first, second);
+
+        group.unlink();
+
+        Assert.assertEquals(Collections.emptyList(), group.getLayouts());
+        Assert.assertNull(first.getSplitterGroup());
+        Assert.assertNull(second.getSplitterGroup());
+    }
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        UI.setCurrent(ui);
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+}
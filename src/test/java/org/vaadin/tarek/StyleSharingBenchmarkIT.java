@@ -0,0 +1,144 @@
+package org.vaadin.tarek;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Measures the style cost of up to {@value InstancesBenchmarkView#MAX_INSTANCES}
+ * sibling layouts in headless Chrome, and checks that all instances share the
+ * constructable stylesheets of the element instead of carrying their own
+ * {@code <style>} elements. Excluded from the {@code it} profile by default,
+ * run with {@code mvn verify -Pit -Dit.test=StyleSharingBenchmarkIT}.
+ * <p>
+ * The style recalculation is measured by switching the Lumo theme of the
+ * document, which restyles the shadow roots of all instances. The heap and
+ * node counts are read after rendering, without a forced garbage collection,
+ * so the difference to the empty page is an upper bound for the instances.
+ * <p>
+ * The results are written to
+ * {@code target/benchmark-reports/style-sharing.json}.
+ */
+public class StyleSharingBenchmarkIT extends AbstractViewTest {
+
+    private static final int[] INSTANCES = { 0, 100, 250, 500,
+            InstancesBenchmarkView.MAX_INSTANCES };
+    private static final int RECALC_ROUNDS = 10;
+    private static final Path REPORT = Paths.get("target",
+            "benchmark-reports", "style-sharing.json");
+    private static final List<String> CDP_DELTA_METRICS = Arrays.asList(
+            "RecalcStyleCount", "RecalcStyleDuration", "LayoutCount",
+            "LayoutDuration");
+    private static final List<String> CDP_ABSOLUTE_METRICS = Arrays
+            .asList("JSHeapUsedSize", "Nodes", "Documents");
+
+    private static final String COUNT_SCRIPT = """
+            return document.querySelectorAll('collapsible-vaadin-split-layout').length;
+            """;
+
+    private static final String SHARING_SCRIPT = """
+            const layouts = [...document.querySelectorAll('collapsible-vaadin-split-layout')];
+            const sheets = new Set();
+            let styleElements = 0;
+            layouts.forEach((layout) => {
+              styleElements += layout.shadowRoot.querySelectorAll('style').length;
+              (layout.shadowRoot.adoptedStyleSheets || []).forEach((sheet) => sheets.add(sheet));
+            });
+            return JSON.stringify({
+              adoptedStyleSheets: 'adoptedStyleSheets' in Document.prototype,
+              styleElements: styleElements,
+              distinctSheets: sheets.size,
+              sheetsPerInstance: layouts.length > 0
+                ? (layouts[0].shadowRoot.adoptedStyleSheets || []).length : 0
+            });
+            """;
+
+    private static final String RECALC_SCRIPT = """
+            const done = arguments[arguments.length - 1];
+            const rounds = arguments[0];
+            const root = document.documentElement;
+            let round = 0;
+            const next = () => {
+              if (round === rounds * 2) {
+                root.removeAttribute('theme');
+                done();
+                return;
+              }
+              root.setAttribute('theme', round % 2 === 0 ? 'dark' : '');
+              // Forces the style recalculation within the round
+              document.body.getBoundingClientRect();
+              round++;
+              requestAnimationFrame(next);
+            };
+            requestAnimationFrame(next);
+            """;
+
+    public StyleSharingBenchmarkIT() {
+        super("benchmark-instances");
+    }
+
+    @Test
+    public void styleSharing() throws IOException {
+        getDriver().manage().timeouts().scriptTimeout(Duration.ofSeconds(60));
+        JavascriptExecutor executor = (JavascriptExecutor) getDriver();
+        JsonArray results = Json.createArray();
+        for (int instances : INSTANCES) {
+            getDriver().get(getURL("benchmark-instances/" + instances));
+            waitUntil(driver -> ((Number) executor.executeScript(COUNT_SCRIPT))
+                    .intValue() == instances);
+
+            JsonObject sharing = Json
+                    .parse((String) executor.executeScript(SHARING_SCRIPT));
+            if (sharing.getBoolean("adoptedStyleSheets")) {
+                Assert.assertEquals("Style elements in the shadow roots", 0,
+                        (int) sharing.getNumber("styleElements"));
+                Assert.assertEquals("Stylesheets shared by the instances",
+                        sharing.getNumber("sheetsPerInstance"),
+                        sharing.getNumber("distinctSheets"), 0);
+            }
+
+            Map<String, Double> before = DragAndCollapseBenchmarkIT
+                    .getCdpMetrics(getDriver());
+            executor.executeAsyncScript(RECALC_SCRIPT, RECALC_ROUNDS);
+            Map<String, Double> after = DragAndCollapseBenchmarkIT
+                    .getCdpMetrics(getDriver());
+
+            JsonObject result = Json.createObject();
+            result.put("instances", instances);
+            result.put("sharing", sharing);
+            result.put("recalcRounds", RECALC_ROUNDS * 2);
+            CDP_DELTA_METRICS.stream().filter(
+                    name -> before.containsKey(name) && after.containsKey(name))
+                    .forEach(name -> result.put(name,
+                            after.get(name) - before.get(name)));
+            CDP_ABSOLUTE_METRICS.stream().filter(before::containsKey)
+                    .forEach(name -> result.put(name, before.get(name)));
+            results.set(results.length(), result);
+        }
+
+        JsonObject report = Json.createObject();
+        report.put("timestamp", Instant.now().toString());
+        report.put("userAgent", (String) executor
+                .executeScript("return navigator.userAgent"));
+        report.put("results", results);
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, report.toJson().getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals(INSTANCES.length, results.length());
+    }
+}